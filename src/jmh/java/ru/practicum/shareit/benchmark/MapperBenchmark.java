@@ -0,0 +1,105 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.utility.BookingMapper;
+import ru.practicum.shareit.comment.dto.ResponseComment;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.comment.utility.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.utility.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.utility.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Микробенчмарки преобразований между сущностями, проекциями и объектами для передачи данных.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+	private Booking booking;
+	private BookingRow bookingRow;
+	private Item item;
+	private ItemView itemView;
+	private ItemDto itemDto;
+	private Comment comment;
+	private User user;
+	private UserDto userDto;
+
+	@Setup
+	public void createObjects() {
+		LocalDateTime now = LocalDateTime.now();
+		user = User.builder().id(2).name("Арендатор").email("booker@shareit.ru").build();
+		userDto = UserMapper.userToDto(user);
+		item = Item.builder().id(1).ownerId(1).name("Дрель").description("Ударная дрель").available(true).build();
+		itemView = new ItemView(1, 1, "Дрель", "Ударная дрель", true);
+		itemDto = ItemMapper.itemToDto(item);
+		booking = Booking.builder().id(1).item(item).booker(user).start(now).end(now.plusDays(1))
+				.status(Status.APPROVED).build();
+		bookingRow = new BookingRow(1, now, now.plusDays(1), Status.APPROVED, 1, "Дрель", "Ударная дрель", 1, true,
+				2, "Арендатор", "booker@shareit.ru");
+		comment = Comment.builder().id(1).item(item).author(user).text("Отличная дрель").created(now).build();
+	}
+
+	@Benchmark
+	public BookingResponseDto bookingToResponseDto() {
+		return BookingMapper.bookingToResponseDto(booking);
+	}
+
+	@Benchmark
+	public BookingResponseDto rowToResponseDto() {
+		return BookingMapper.rowToResponseDto(bookingRow);
+	}
+
+	@Benchmark
+	public ItemDto itemToDto() {
+		return ItemMapper.itemToDto(item);
+	}
+
+	@Benchmark
+	public ItemDto viewToDto() {
+		return ItemMapper.viewToDto(itemView);
+	}
+
+	@Benchmark
+	public Item dtoToItem() {
+		return ItemMapper.dtoToItem(itemDto);
+	}
+
+	@Benchmark
+	public ResponseComment commentToResponse() {
+		return CommentMapper.commentToResponse(comment);
+	}
+
+	@Benchmark
+	public UserDto userToDto() {
+		return UserMapper.userToDto(user);
+	}
+
+	@Benchmark
+	public User dtoToUser() {
+		return UserMapper.dtoToUser(userDto);
+	}
+}
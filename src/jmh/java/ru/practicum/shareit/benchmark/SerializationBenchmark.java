@@ -0,0 +1,87 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingReference;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.utility.BookingMapper;
+import ru.practicum.shareit.comment.dto.ResponseComment;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарки сериализации списков ответов в JSON тем же набором модулей и настроек Jackson, что и в приложении.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+	@Param({"10", "100"})
+	private int listSize;
+
+	private ObjectMapper objectMapper;
+	private List<BookingResponseDto> bookings;
+	private List<ItemDto> items;
+
+	@Setup
+	public void createLists() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		LocalDateTime now = LocalDateTime.now();
+		bookings = new ArrayList<>(listSize);
+		items = new ArrayList<>(listSize);
+		for (int i = 1; i <= listSize; i++) {
+			bookings.add(BookingMapper.rowToResponseDto(new BookingRow(i, now.plusDays(i), now.plusDays(i + 1),
+					Status.APPROVED, i, "Вещь " + i, "Описание вещи " + i, 1, true,
+					i + 1, "Арендатор " + i, "booker" + i + "@shareit.ru")));
+			items.add(ItemDto.builder()
+					.id(i)
+					.ownerId(1)
+					.name("Вещь " + i)
+					.description("Описание вещи " + i)
+					.available(true)
+					.lastBooking(new BookingReference(i, i + 1))
+					.nextBooking(new BookingReference(i + 1, i + 2))
+					.comments(List.of(ResponseComment.builder()
+							.id(i)
+							.text("Отзыв " + i)
+							.authorName("Арендатор " + i)
+							.created(now)
+							.build()))
+					.build());
+		}
+	}
+
+	@Benchmark
+	public byte[] bookingList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(bookings);
+	}
+
+	@Benchmark
+	public byte[] itemList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(items);
+	}
+}
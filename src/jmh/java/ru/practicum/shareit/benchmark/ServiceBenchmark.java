@@ -0,0 +1,127 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Бенчмарки сервисного слоя на заполненной базе H2 в памяти. Контекст приложения поднимается без веб-сервера
+ * один раз на прогон, данные создаются через сервисы, чтобы индексы и кэши в памяти были согласованы с базой.</p>
+ * <p>Размер набора данных задаётся параметром datasetSize - количество вещей; на каждую вещь приходится
+ * {@value #BOOKINGS_PER_ITEM} завершённых бронирования, вещи распределены между владельцами по кругу.</p>
+ * <p>Кэш результатов поиска отключён: иначе itemSeek после первого вызова измерял бы только чтение из кэша,
+ * а не поисковый движок. Свойства передаются аргументами командной строки, потому что свойства по умолчанию
+ * из properties() переопределяются application.properties.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+	private static final int BOOKINGS_PER_ITEM = 3;
+	private static final int ITEMS_PER_OWNER = 50;
+	private static final int PAGE_SIZE = 20;
+	private static final String[] NAMES = {"Дрель", "Палатка", "Велосипед", "Байдарка", "Перфоратор"};
+
+	@Param({"1000"})
+	private int datasetSize;
+
+	private ConfigurableApplicationContext context;
+	private ItemService itemService;
+	private BookingService bookingService;
+	private Integer ownerId;
+
+	@Setup(Level.Trial)
+	public void seed() {
+		context = new SpringApplicationBuilder(ShareItApp.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:benchmark-" + UUID.randomUUID(),
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.org.springframework.transaction.interceptor=WARN",
+						"--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+						"--shareit.booking-summary.sweep-delay=3600000",
+						"--shareit.search.cache.enabled=false");
+		UserService userService = context.getBean(UserService.class);
+		itemService = context.getBean(ItemService.class);
+		bookingService = context.getBean(BookingService.class);
+
+		int owners = Math.max(1, datasetSize / ITEMS_PER_OWNER);
+		List<Integer> ownerIds = new ArrayList<>(owners);
+		for (int i = 0; i < owners; i++) {
+			ownerIds.add(TestUsers.create(userService).getId());
+		}
+		Integer bookerId = TestUsers.create(userService).getId();
+		ownerId = ownerIds.get(0);
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < datasetSize; i++) {
+			Integer itemOwnerId = ownerIds.get(i % owners);
+			ItemDto item = itemService.saveItem(ItemDto.builder()
+					.ownerId(itemOwnerId)
+					.name(NAMES[i % NAMES.length] + " " + i)
+					.description("Вещь для аренды номер " + i)
+					.available(true)
+					.build(), itemOwnerId);
+			for (int week = 1; week <= BOOKINGS_PER_ITEM; week++) {
+				BookingResponseDto booking = bookingService.save(BookingRequestDto.builder()
+						.itemId(item.getId())
+						.userId(bookerId)
+						.status(Status.WAITING)
+						.start(now.minusWeeks(week))
+						.end(now.minusWeeks(week).plusDays(1))
+						.build());
+				bookingService.update(booking.getId(), itemOwnerId, Status.APPROVED);
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<ItemDto> itemFindAll() {
+		return itemService.findAll(ownerId, null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<ItemDto> itemSeek() {
+		return itemService.seekItem("дрель", null, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<BookingResponseDto> bookingFindAllForOwner() {
+		return bookingService.findAllBookingForOwner(ownerId, "ALL", null, PAGE_SIZE);
+	}
+}
@@ -0,0 +1,283 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import ru.practicum.shareit.booking.Status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * <p>Класс DatasetGenerator заполняет базу H2 или PostgreSQL синтетическими данными пакетными вставками JDBC,
+ * минуя сервисный слой. Схема пересоздаётся скриптом schema.sql приложения, для PostgreSQL дополнительно
+ * выполняется schema-postgresql.sql; производные таблицы booking_views и item_booking_summary
+ * заполняются запросами к загруженным данным.</p>
+ * <p>Вещи распределены по владельцам, бронирования - по вещам и арендаторам по закону Ципфа. Подтверждённые
+ * и ожидающие бронирования одной вещи не пересекаются, отклонённые и отменённые попадают на произвольные даты
+ * и пересекаются с ними. Названия и описания составлены из словаря с длинным хвостом редких слов.
+ * Один и тот же seed даёт одинаковый набор данных.</p>
+ * <p>Запуск: {@code mvn -P jmh test-compile exec:java@generate-dataset
+ * -Dexec.args="--url=jdbc:h2:file:./target/shareit --scale=10"}. Приложение после загрузки нужно запускать
+ * с {@code spring.sql.init.mode=never}, иначе schema.sql удалит данные. Для PostgreSQL пакетные вставки
+ * ускоряет параметр подключения reWriteBatchedInserts=true.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DatasetGenerator {
+	private static final int BATCH_SIZE = 10_000;
+	public static final int TERMS = 20_000;
+	private static final long PAST_DAYS = 730;
+	private static final long FUTURE_DAYS = 180;
+	private static final String[] ROOTS = {"дрель", "палатка", "велосипед", "байдарка", "перфоратор", "лестница",
+			"шуруповёрт", "самокат", "проектор", "гитара", "мангал", "спальник", "рюкзак", "коляска", "лыжи",
+			"сноуборд", "фотоаппарат", "объектив", "штатив", "пылесос", "генератор", "компрессор", "бензопила",
+			"миксер", "утюг", "удочка", "котелок", "гамак", "тент", "стремянка"};
+
+	private final DatasetParameters parameters;
+
+	public static void main(String[] args) throws SQLException {
+		Map<String, String> options = new HashMap<>();
+		for (String argument : args) {
+			int separator = argument.indexOf('=');
+			if (!argument.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Аргумент должен иметь вид --имя=значение: " + argument);
+			}
+			options.put(argument.substring(2, separator), argument.substring(separator + 1));
+		}
+		String url = options.getOrDefault("url", "jdbc:h2:file:./target/shareit");
+		try (Connection connection = DriverManager.getConnection(url,
+				options.getOrDefault("user", "test"), options.getOrDefault("password", "test"))) {
+			new DatasetGenerator(DatasetParameters.from(options)).generate(connection);
+		}
+	}
+
+	/**
+	 * Метод пересоздаёт схему и заполняет её данными.
+	 * @param connection подключение к базе данных
+	 */
+	public void generate(Connection connection) throws SQLException {
+		long started = System.nanoTime();
+		createSchema(connection);
+		connection.setAutoCommit(false);
+		SplittableRandom random = new SplittableRandom(parameters.getSeed());
+		LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+		int users = parameters.getUsers();
+		insertUsers(connection, users);
+		int[] owners = insertItems(connection, users, random);
+		long[] counts = insertBookingsAndComments(connection, owners, users, now, random);
+		fillDerivedTables(connection, now);
+		restartIdentity(connection, "users", "user_id", users + 1L);
+		restartIdentity(connection, "items", "item_id", owners.length + 1L);
+		restartIdentity(connection, "bookings", "booking_id", counts[0] + 1);
+		restartIdentity(connection, "comments", "comment_id", counts[1] + 1);
+		connection.commit();
+		log.info("Набор данных: пользователей {}, вещей {}, бронирований {}, отзывов {} за {} с",
+				users, owners.length, counts[0], counts[1], (System.nanoTime() - started) / 1_000_000_000);
+	}
+
+	private void createSchema(Connection connection) throws SQLException {
+		ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+		if (connection.getMetaData().getURL().startsWith("jdbc:postgresql:")) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema-postgresql.sql"));
+		}
+	}
+
+	private void insertUsers(Connection connection, int users) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(
+				"insert into users (user_id, name, email) values (?, ?, ?)")) {
+			for (int id = 1; id <= users; id++) {
+				statement.setInt(1, id);
+				statement.setString(2, "Пользователь " + id);
+				statement.setString(3, "user" + id + "@shareit.ru");
+				addToBatch(connection, statement, id);
+			}
+			flush(connection, statement);
+		}
+	}
+
+	private int[] insertItems(Connection connection, int users, SplittableRandom random) throws SQLException {
+		int items = parameters.getItems();
+		int[] owners = new int[items];
+		ZipfSampler ownerSampler = parameters.ownerSampler();
+		ZipfSampler termSampler = parameters.termSampler();
+		try (PreparedStatement statement = connection.prepareStatement(
+				"insert into items (item_id, name, description, available, owner_id) values (?, ?, ?, ?, ?)")) {
+			for (int index = 0; index < items; index++) {
+				owners[index] = ownerSampler.next(random) + 1;
+				statement.setInt(1, index + 1);
+				statement.setString(2, phrase(termSampler, random, 2));
+				statement.setString(3, phrase(termSampler, random, 3 + random.nextInt(4)));
+				statement.setBoolean(4, random.nextInt(10) != 0);
+				statement.setInt(5, owners[index]);
+				addToBatch(connection, statement, index + 1);
+			}
+			flush(connection, statement);
+		}
+		log.info("Набор данных: загружено вещей {}", items);
+		return owners;
+	}
+
+	/**
+	 * Бронирования каждой вещи равномерно делят окно от {@value #PAST_DAYS} дней назад до {@value #FUTURE_DAYS}
+	 * дней вперёд на интервалы, поэтому у популярных вещей бронирования короче и плотнее.
+	 * @return количество бронирований и количество отзывов
+	 */
+	private long[] insertBookingsAndComments(Connection connection, int[] owners, int users, LocalDateTime now,
+											 SplittableRandom random) throws SQLException {
+		int[] bookingsPerItem = new int[owners.length];
+		ZipfSampler itemSampler = parameters.itemSampler();
+		for (long i = 0; i < parameters.getBookings(); i++) {
+			bookingsPerItem[itemSampler.next(random)]++;
+		}
+		ZipfSampler bookerSampler = parameters.bookerSampler();
+		ZipfSampler termSampler = parameters.termSampler();
+		LocalDateTime windowStart = now.minusDays(PAST_DAYS);
+		long windowSeconds = (PAST_DAYS + FUTURE_DAYS) * 24 * 60 * 60;
+		long bookingId = 0;
+		long commentId = 0;
+		try (PreparedStatement bookings = connection.prepareStatement("insert into bookings " +
+				"(booking_id, date_from, date_to, status, user_id, item_id) values (?, ?, ?, ?, ?, ?)");
+			 PreparedStatement comments = connection.prepareStatement("insert into comments " +
+					 "(comment_id, item_id, user_id, content, creation_date) values (?, ?, ?, ?, ?)")) {
+			for (int index = 0; index < owners.length; index++) {
+				int count = bookingsPerItem[index];
+				long slot = windowSeconds / Math.max(1, count);
+				for (int k = 0; k < count; k++) {
+					int bookerId = bookerSampler.next(random) + 1;
+					if (bookerId == owners[index]) {
+						bookerId = bookerId % users + 1;
+					}
+					int roll = random.nextInt(100);
+					Status status;
+					long offset;
+					if (roll < 8) {
+						status = Status.REJECTED;
+						offset = random.nextLong(windowSeconds);
+					} else if (roll < 12) {
+						status = Status.CANCELED;
+						offset = random.nextLong(windowSeconds);
+					} else {
+						offset = k * slot + random.nextLong(Math.max(1, slot / 5));
+						status = null;
+					}
+					LocalDateTime start = windowStart.plusSeconds(offset);
+					LocalDateTime end = start.plusSeconds(Math.max(1, slot * (30 + random.nextInt(46)) / 100));
+					if (status == null) {
+						status = start.isAfter(now) && random.nextInt(10) < 3 ? Status.WAITING : Status.APPROVED;
+					}
+					bookingId++;
+					bookings.setInt(1, (int) bookingId);
+					bookings.setTimestamp(2, Timestamp.valueOf(start));
+					bookings.setTimestamp(3, Timestamp.valueOf(end));
+					bookings.setString(4, status.name());
+					bookings.setInt(5, bookerId);
+					bookings.setInt(6, index + 1);
+					addToBatch(connection, bookings, bookingId);
+
+					if (status == Status.APPROVED && end.isBefore(now) && random.nextDouble() < parameters.getCommentRate()) {
+						LocalDateTime created = end.plusHours(1 + random.nextInt(72));
+						commentId++;
+						comments.setInt(1, (int) commentId);
+						comments.setInt(2, index + 1);
+						comments.setInt(3, bookerId);
+						comments.setString(4, phrase(termSampler, random, 5 + random.nextInt(10)));
+						comments.setTimestamp(5, Timestamp.valueOf(created.isAfter(now) ? now : created));
+						addToBatch(connection, comments, commentId);
+					}
+					if (bookingId % 1_000_000 == 0) {
+						log.info("Набор данных: загружено бронирований {}", bookingId);
+					}
+				}
+			}
+			flush(connection, bookings);
+			flush(connection, comments);
+		}
+		return new long[]{bookingId, commentId};
+	}
+
+	private void fillDerivedTables(Connection connection, LocalDateTime now) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("insert into booking_views (booking_id, date_from, date_to, status, item_id, " +
+					"item_name, item_description, item_available, owner_id, booker_id, booker_name, booker_email) " +
+					"select b.booking_id, b.date_from, b.date_to, b.status, i.item_id, i.name, i.description, " +
+					"i.available, i.owner_id, u.user_id, u.name, u.email from bookings as b " +
+					"join items as i on i.item_id = b.item_id join users as u on u.user_id = b.user_id");
+		}
+		connection.commit();
+		try (PreparedStatement statement = connection.prepareStatement("insert into item_booking_summary " +
+				"(item_id, last_booking_id, last_booker_id, next_booking_id, next_booker_id, refresh_at) " +
+				"select i.item_id, l.booking_id, l.user_id, n.booking_id, n.user_id, " +
+				"(select min(f.date_from) from bookings as f where f.item_id = i.item_id and f.date_from >= ?) " +
+				"from items as i " +
+				"left join (select b.item_id, b.booking_id, b.user_id, " +
+				"row_number() over (partition by b.item_id order by b.date_to desc) as rn " +
+				"from bookings as b where b.date_from < ?) as l on l.item_id = i.item_id and l.rn = 1 " +
+				"left join (select b.item_id, b.booking_id, b.user_id, " +
+				"row_number() over (partition by b.item_id order by b.date_from asc) as rn " +
+				"from bookings as b where b.date_from > ? and b.status = 'APPROVED') as n " +
+				"on n.item_id = i.item_id and n.rn = 1")) {
+			Timestamp timestamp = Timestamp.valueOf(now);
+			statement.setTimestamp(1, timestamp);
+			statement.setTimestamp(2, timestamp);
+			statement.setTimestamp(3, timestamp);
+			statement.executeUpdate();
+		}
+		connection.commit();
+		log.info("Набор данных: заполнены booking_views и item_booking_summary");
+	}
+
+	private static void restartIdentity(Connection connection, String table, String column, long next)
+			throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.executeUpdate("alter table " + table + " alter column " + column + " restart with " + next);
+		}
+	}
+
+	private static String phrase(ZipfSampler termSampler, SplittableRandom random, int words) {
+		StringBuilder phrase = new StringBuilder();
+		for (int i = 0; i < words; i++) {
+			if (i > 0) {
+				phrase.append(' ');
+			}
+			phrase.append(term(termSampler.next(random)));
+		}
+		return phrase.toString();
+	}
+
+	/**
+	 * Метод возвращает слово словаря по номеру: первые номера - корни, остальные - их варианты с суффиксом.
+	 * Частота слова задаётся не номером, а распределением {@link DatasetParameters#termSampler()}, общим
+	 * для названий, описаний и отзывов.
+	 * @param index номер слова от 0 до {@link #TERMS} - 1
+	 * @return слово
+	 */
+	public static String term(int index) {
+		return index < ROOTS.length
+				? ROOTS[index]
+				: ROOTS[index % ROOTS.length] + Integer.toString(index / ROOTS.length, Character.MAX_RADIX);
+	}
+
+	private static void addToBatch(Connection connection, PreparedStatement statement, long row) throws SQLException {
+		statement.addBatch();
+		if (row % BATCH_SIZE == 0) {
+			flush(connection, statement);
+		}
+	}
+
+	private static void flush(Connection connection, PreparedStatement statement) throws SQLException {
+		statement.executeBatch();
+		connection.commit();
+	}
+}
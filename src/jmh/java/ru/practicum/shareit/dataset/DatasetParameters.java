@@ -0,0 +1,99 @@
+package ru.practicum.shareit.dataset;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * <p>Параметры синтетического набора данных. Масштаб 1 соответствует 100 тысячам пользователей, 200 тысячам вещей
+ * и миллиону бронирований; количество отзывов определяется долей завершённых бронирований с отзывом.</p>
+ * <p>Показатели степени распределения Ципфа задают перекос: ownerSkew - распределения вещей по владельцам,
+ * bookerSkew - бронирований по арендаторам, itemSkew - бронирований по вещам, termSkew - слов в названиях
+ * и описаниях вещей. Значение 0 даёт равномерное распределение.</p>
+ * <p>Распределения создаются методами *Sampler. Перестановка каждого распределения выводится из seed и названия
+ * измерения, поэтому генератор данных и нагрузочный стенд считают популярными одни и те же элементы,
+ * а слова названий вещей и отзывов выбираются из одного распределения.</p>
+ */
+@Value
+@Builder
+public class DatasetParameters {
+	@Builder.Default
+	long seed = 42;
+	@Builder.Default
+	double scale = 1;
+	@Builder.Default
+	double ownerSkew = 1.1;
+	@Builder.Default
+	double bookerSkew = 0.9;
+	@Builder.Default
+	double itemSkew = 1.0;
+	@Builder.Default
+	double termSkew = 1.2;
+	@Builder.Default
+	double commentRate = 0.2;
+
+	public int getUsers() {
+		return Math.max(2, (int) Math.round(100_000 * scale));
+	}
+
+	public int getItems() {
+		return Math.max(1, (int) Math.round(200_000 * scale));
+	}
+
+	public long getBookings() {
+		return Math.max(1, Math.round(1_000_000 * scale));
+	}
+
+	public ZipfSampler ownerSampler() {
+		return sampler("owners", getUsers(), ownerSkew);
+	}
+
+	public ZipfSampler bookerSampler() {
+		return sampler("bookers", getUsers(), bookerSkew);
+	}
+
+	public ZipfSampler itemSampler() {
+		return sampler("items", getItems(), itemSkew);
+	}
+
+	public ZipfSampler termSampler() {
+		return sampler("terms", DatasetGenerator.TERMS, termSkew);
+	}
+
+	private ZipfSampler sampler(String dimension, int n, double exponent) {
+		return new ZipfSampler(n, exponent, seed * 31 + dimension.hashCode());
+	}
+
+	/**
+	 * Метод создаёт параметры из аргументов командной строки вида --scale=10; отсутствующие принимают значения
+	 * по умолчанию.
+	 * @param options аргументы по именам без префикса
+	 * @return параметры набора данных
+	 */
+	public static DatasetParameters from(Map<String, String> options) {
+		DatasetParametersBuilder builder = builder();
+		if (options.containsKey("seed")) {
+			builder.seed(Long.parseLong(options.get("seed")));
+		}
+		if (options.containsKey("scale")) {
+			builder.scale(Double.parseDouble(options.get("scale")));
+		}
+		if (options.containsKey("owner-skew")) {
+			builder.ownerSkew(Double.parseDouble(options.get("owner-skew")));
+		}
+		if (options.containsKey("booker-skew")) {
+			builder.bookerSkew(Double.parseDouble(options.get("booker-skew")));
+		}
+		if (options.containsKey("item-skew")) {
+			builder.itemSkew(Double.parseDouble(options.get("item-skew")));
+		}
+		if (options.containsKey("term-skew")) {
+			builder.termSkew(Double.parseDouble(options.get("term-skew")));
+		}
+		if (options.containsKey("comment-rate")) {
+			builder.commentRate(Double.parseDouble(options.get("comment-rate")));
+		}
+		return builder.build();
+	}
+}
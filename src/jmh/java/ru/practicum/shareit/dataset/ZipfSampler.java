@@ -0,0 +1,59 @@
+package ru.practicum.shareit.dataset;
+
+import java.util.SplittableRandom;
+
+/**
+ * <p>Класс ZipfSampler выбирает ранг от 0 до n - 1 с вероятностью, пропорциональной 1 / (ранг + 1)^s.
+ * При s = 0 распределение равномерное, чем больше s, тем сильнее выбор смещён к первым рангам.</p>
+ * <p>Функция распределения вычисляется один раз, выбор выполняется двоичным поиском. Чтобы популярность
+ * не совпадала с порядком идентификаторов, ранги сопоставляются элементам случайной перестановкой,
+ * которая полностью определяется переданным seed: выборки с одинаковыми параметрами и seed
+ * считают популярными одни и те же элементы.</p>
+ */
+public class ZipfSampler {
+	private final double[] cumulative;
+	private final int[] permutation;
+
+	public ZipfSampler(int n, double exponent, long seed) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("Количество элементов должно быть положительным: " + n);
+		}
+		cumulative = new double[n];
+		double sum = 0;
+		for (int rank = 0; rank < n; rank++) {
+			sum += 1 / Math.pow(rank + 1, exponent);
+			cumulative[rank] = sum;
+		}
+		SplittableRandom random = new SplittableRandom(seed);
+		permutation = new int[n];
+		for (int i = 0; i < n; i++) {
+			permutation[i] = i;
+		}
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int swap = permutation[i];
+			permutation[i] = permutation[j];
+			permutation[j] = swap;
+		}
+	}
+
+	/**
+	 * Метод выбирает элемент.
+	 * @param random источник случайных чисел
+	 * @return индекс элемента от 0 до n - 1
+	 */
+	public int next(SplittableRandom random) {
+		double target = random.nextDouble() * cumulative[cumulative.length - 1];
+		int low = 0;
+		int high = cumulative.length - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulative[middle] < target) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return permutation[low];
+	}
+}
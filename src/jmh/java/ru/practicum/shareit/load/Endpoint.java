@@ -0,0 +1,79 @@
+package ru.practicum.shareit.load;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Виды запросов нагрузочного стенда и их имена в параметре --mix.
+ */
+@Getter
+@RequiredArgsConstructor
+enum Endpoint {
+	ITEMS("items", "GET /items"),
+	ITEM("item", "GET /items/{id}"),
+	SEARCH("search", "GET /items/search"),
+	BOOKINGS("bookings", "GET /bookings"),
+	OWNER_BOOKINGS("owner", "GET /bookings/owner"),
+	CREATE_BOOKING("create", "POST /bookings");
+
+	private final String key;
+	private final String title;
+
+	/**
+	 * Метод разбирает смесь запросов вида items=25,search=10; веса задают долю каждого вида.
+	 * @param mix описание смеси
+	 * @return веса видов запросов
+	 */
+	static Map<Endpoint, Integer> parseMix(String mix) {
+		Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+		for (String part : mix.split(",")) {
+			String[] pair = part.trim().split("=");
+			Endpoint endpoint = fromKey(pair[0]);
+			int weight = Integer.parseInt(pair[1]);
+			if (weight < 0) {
+				throw new IllegalArgumentException("Вес запроса не может быть отрицательным: " + part);
+			}
+			if (weight > 0) {
+				weights.put(endpoint, weight);
+			}
+		}
+		if (weights.isEmpty()) {
+			throw new IllegalArgumentException("Смесь запросов пуста: " + mix);
+		}
+		return weights;
+	}
+
+	/**
+	 * Метод выбирает вид запроса с вероятностью, пропорциональной его весу.
+	 * @param weights веса видов запросов
+	 * @param random генератор случайных чисел потока
+	 * @return вид запроса
+	 */
+	static Endpoint pick(Map<Endpoint, Integer> weights, SplittableRandom random) {
+		int total = 0;
+		for (int weight : weights.values()) {
+			total += weight;
+		}
+		int roll = random.nextInt(total);
+		for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+			roll -= entry.getValue();
+			if (roll < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException("Смесь запросов пуста");
+	}
+
+	private static Endpoint fromKey(String key) {
+		for (Endpoint endpoint : values()) {
+			if (endpoint.key.equals(key)) {
+				return endpoint;
+			}
+		}
+		throw new IllegalArgumentException("Неизвестный вид запроса: " + key);
+	}
+}
@@ -0,0 +1,297 @@
+package ru.practicum.shareit.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.dataset.DatasetGenerator;
+import ru.practicum.shareit.dataset.DatasetParameters;
+import ru.practicum.shareit.dataset.ZipfSampler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Класс LoadHarness - нагрузочный стенд REST API. Заполняет базу H2 в памяти {@link DatasetGenerator},
+ * запускает приложение в том же процессе на случайном порту и нагружает его смесью запросов из многих потоков.</p>
+ * <p>Пользователи в заголовке X-Sharer-User-Id выбираются по закону Ципфа: владельцы - через популярные вещи,
+ * арендаторы - с перекосом booker-skew. Вещи, арендаторы и слова поиска выбираются теми же распределениями
+ * {@link DatasetParameters}, что и при генерации данных, поэтому популярные в нагрузке вещи и слова совпадают
+ * с популярными в базе.</p>
+ * <p>По умолчанию нагрузка замкнутая: каждый поток отправляет следующий запрос сразу после ответа
+ * на предыдущий, поэтому для поиска точки насыщения количество потоков задаётся списком ступеней --threads.
+ * С параметром --rate нагрузка открытая: запросы отправляются асинхронно по расписанию с заданной частотой
+ * для каждой ступени, не дожидаясь ответов на предыдущие, а задержка отсчитывается от запланированного
+ * времени отправки, как в {@link TrafficReplayer}. Так замедление сервера не снижает частоту запросов
+ * и не скрывается из процентилей. Количество одновременно выполняемых запросов ограничено --max-in-flight.
+ * Для каждой ступени и каждого вида запроса выводятся пропускная способность, процентили задержки
+ * HdrHistogram и количество ответов с кодом не 2xx.</p>
+ * <p>Запуск: {@code mvn -P jmh test-compile exec:java@load-test
+ * -Dexec.args="--scale=0.1 --threads=8,32,128 --duration=30 --mix=items=25,item=20,search=15,bookings=15,owner=15,create=10"},
+ * открытая нагрузка: {@code -Dexec.args="--scale=0.1 --rate=500,1000,2000 --duration=30"}.</p>
+ */
+public class LoadHarness {
+	private final Map<String, String> options;
+	private final Map<Endpoint, Integer> mix;
+	private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+	private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	private int[] itemIds;
+	private int[] owners;
+	private int users;
+	private ZipfSampler itemSampler;
+	private ZipfSampler bookerSampler;
+	private ZipfSampler termSampler;
+	private String baseUrl;
+
+	LoadHarness(Map<String, String> options) {
+		this.options = options;
+		this.mix = Endpoint.parseMix(options.getOrDefault("mix",
+				"items=25,item=20,search=15,bookings=15,owner=15,create=10"));
+		for (Endpoint endpoint : Endpoint.values()) {
+			recorders.put(endpoint, new Recorder(3));
+			errors.put(endpoint, new LongAdder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String argument : args) {
+			int separator = argument.indexOf('=');
+			if (!argument.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Аргумент должен иметь вид --имя=значение: " + argument);
+			}
+			options.put(argument.substring(2, separator), argument.substring(separator + 1));
+		}
+		options.putIfAbsent("scale", "0.05");
+		new LoadHarness(options).run();
+	}
+
+	void run() throws Exception {
+		String url = "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+		DatasetParameters parameters = DatasetParameters.from(options);
+		try (Connection connection = DriverManager.getConnection(url, "test", "test")) {
+			new DatasetGenerator(parameters).generate(connection);
+		}
+		// Аргументы командной строки, в отличие от properties(), переопределяют application.properties:
+		// иначе приложение пересоздало бы схему в своей базе и не увидело сгенерированные данные.
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+				.run("--server.port=0",
+						"--spring.datasource.url=" + url,
+						"--spring.sql.init.mode=never",
+						"--spring.jpa.show-sql=false",
+						"--logging.level.root=WARN",
+						"--logging.level.org.springframework.transaction.interceptor=WARN",
+						"--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN")) {
+			baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			loadOwners(context.getBean(JdbcTemplate.class));
+			SplittableRandom random = new SplittableRandom(parameters.getSeed());
+			users = parameters.getUsers();
+			itemSampler = parameters.itemSampler();
+			bookerSampler = parameters.bookerSampler();
+			termSampler = parameters.termSampler();
+
+			long warmup = Long.parseLong(options.getOrDefault("warmup", "10"));
+			long duration = Long.parseLong(options.getOrDefault("duration", "30"));
+			if (options.containsKey("rate")) {
+				Semaphore inFlight = new Semaphore(Integer.parseInt(options.getOrDefault("max-in-flight", "256")));
+				for (String step : options.get("rate").split(",")) {
+					double rate = Double.parseDouble(step.trim());
+					driveAtRate(rate, warmup, inFlight, random.split());
+					resetRecorders();
+					long started = System.nanoTime();
+					driveAtRate(rate, duration, inFlight, random.split());
+					report(String.format("Частота: %s запросов/с", step.trim()), (System.nanoTime() - started) / 1e9);
+				}
+				return;
+			}
+			for (String step : options.getOrDefault("threads", "8,32,128").split(",")) {
+				int threads = Integer.parseInt(step.trim());
+				drive(threads, warmup, random.split());
+				resetRecorders();
+				long started = System.nanoTime();
+				drive(threads, duration, random.split());
+				report(String.format("Потоков: %d", threads), (System.nanoTime() - started) / 1e9);
+			}
+		}
+	}
+
+	/**
+	 * Метод загружает владельцев вещей, чтобы запросы владельца отправлялись от имени настоящего владельца.
+	 * @param jdbcTemplate шаблон JDBC приложения
+	 */
+	private void loadOwners(JdbcTemplate jdbcTemplate) {
+		List<Map<String, Object>> rows = jdbcTemplate.queryForList("select item_id, owner_id from items order by item_id");
+		itemIds = new int[rows.size()];
+		owners = new int[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			itemIds[i] = ((Number) rows.get(i).get("item_id")).intValue();
+			owners[i] = ((Number) rows.get(i).get("owner_id")).intValue();
+		}
+	}
+
+	private void drive(int threads, long seconds, SplittableRandom random) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		for (int i = 0; i < threads; i++) {
+			SplittableRandom threadRandom = random.split();
+			executor.execute(() -> {
+				while (System.nanoTime() < deadline) {
+					Endpoint endpoint = Endpoint.pick(mix, threadRandom);
+					HttpRequest request = request(endpoint, threadRandom);
+					long started = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() / 100 != 2) {
+							errors.get(endpoint).increment();
+						}
+					} catch (IOException exception) {
+						errors.get(endpoint).increment();
+					} catch (InterruptedException exception) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+					recorders.get(endpoint).recordValue((System.nanoTime() - started) / 1_000);
+				}
+			});
+		}
+		executor.shutdown();
+		if (!executor.awaitTermination(seconds + 60, TimeUnit.SECONDS)) {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Метод отправляет запросы с постоянной частотой, не дожидаясь ответов, и дожидается завершения всех запросов.
+	 * Задержка отсчитывается от запланированного времени отправки, поэтому ожидание свободного места
+	 * под --max-in-flight тоже попадает в отчёт.
+	 * @param rate частота запросов в секунду
+	 * @param seconds длительность в секундах
+	 * @param inFlight ограничение количества одновременно выполняемых запросов
+	 * @param random источник случайных чисел
+	 */
+	private void driveAtRate(double rate, long seconds, Semaphore inFlight, SplittableRandom random)
+			throws InterruptedException {
+		long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+		long startNanos = System.nanoTime();
+		long deadline = startNanos + TimeUnit.SECONDS.toNanos(seconds);
+		List<CompletableFuture<?>> pending = new ArrayList<>();
+		for (long i = 0; startNanos + i * interval < deadline; i++) {
+			long intended = startNanos + i * interval;
+			long wait = intended - System.nanoTime();
+			while (wait > 0) {
+				LockSupport.parkNanos(wait);
+				wait = intended - System.nanoTime();
+			}
+			Endpoint endpoint = Endpoint.pick(mix, random);
+			HttpRequest request = request(endpoint, random);
+			inFlight.acquire();
+			pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, exception) -> {
+						if (exception != null || response.statusCode() / 100 != 2) {
+							errors.get(endpoint).increment();
+						}
+						recorders.get(endpoint).recordValue((System.nanoTime() - intended) / 1_000);
+						inFlight.release();
+					}));
+			pending.removeIf(CompletableFuture::isDone);
+		}
+		CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).exceptionally(exception -> null).join();
+	}
+
+	private HttpRequest request(Endpoint endpoint, SplittableRandom random) {
+		int item = itemSampler.next(random);
+		int itemId = itemIds[item];
+		int ownerId = owners[item];
+		int bookerId = bookerSampler.next(random) + 1;
+		switch (endpoint) {
+			case ITEMS:
+				return get("/items", ownerId);
+			case ITEM:
+				return get("/items/" + itemId, random.nextInt(4) == 0 ? ownerId : bookerId);
+			case SEARCH:
+				return get("/items/search?text=" + URLEncoder.encode(
+						DatasetGenerator.term(termSampler.next(random)), StandardCharsets.UTF_8), bookerId);
+			case BOOKINGS:
+				return get("/bookings?state=" + state(random), bookerId);
+			case OWNER_BOOKINGS:
+				return get("/bookings/owner?state=" + state(random), ownerId);
+			case CREATE_BOOKING:
+				LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+						.plusDays(200 + random.nextInt(365)).plusHours(random.nextInt(24));
+				String body = "{\"itemId\":" + itemId + ",\"start\":\"" + start +
+						"\",\"end\":\"" + start.plusHours(1 + random.nextInt(72)) + "\"}";
+				return HttpRequest.newBuilder(URI.create(baseUrl + "/bookings"))
+						.header("X-Sharer-User-Id", Integer.toString(bookerId == ownerId ? bookerId % users + 1 : bookerId))
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(body))
+						.build();
+			default:
+				throw new IllegalArgumentException("Неизвестный вид запроса: " + endpoint);
+		}
+	}
+
+	private HttpRequest get(String path, int userId) {
+		return HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("X-Sharer-User-Id", Integer.toString(userId))
+				.GET()
+				.build();
+	}
+
+	private static String state(SplittableRandom random) {
+		int roll = random.nextInt(10);
+		return roll < 6 ? "ALL" : roll < 8 ? "FUTURE" : roll < 9 ? "PAST" : "WAITING";
+	}
+
+	private void resetRecorders() {
+		recorders.values().forEach(Recorder::reset);
+		errors.values().forEach(LongAdder::reset);
+	}
+
+	private void report(String step, double seconds) {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("%s, длительность: %.1f с", step, seconds));
+		lines.add(String.format("%-22s %10s %10s %9s %9s %9s %9s %9s %8s",
+				"запрос", "запросов", "в секунду", "p50, мс", "p90, мс", "p99, мс", "p99.9, мс", "max, мс", "не 2xx"));
+		for (Endpoint endpoint : mix.keySet()) {
+			Histogram histogram = recorders.get(endpoint).getIntervalHistogram();
+			lines.add(String.format("%-22s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %8d",
+					endpoint.getTitle(), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+					histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(90) / 1000.0,
+					histogram.getValueAtPercentile(99) / 1000.0, histogram.getValueAtPercentile(99.9) / 1000.0,
+					histogram.getMaxValue() / 1000.0, errors.get(endpoint).sum()));
+		}
+		System.out.println(String.join(System.lineSeparator(), lines));
+	}
+
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import ru.practicum.shareit.traffic.TrafficReader;
+import ru.practicum.shareit.traffic.TrafficRecord;
+
+import java.io.BufferedReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * <p>Класс TrafficReplayer воспроизводит запросы, сохранённые
+ * {@link ru.practicum.shareit.traffic.TrafficCaptureFilter}, на запущенном экземпляре приложения
+ * и сравнивает задержки с записанными.</p>
+ * <p>Файл читается построчно. Фильтр записывает запрос по завершении обработки, поэтому порядок строк
+ * отличается от порядка поступления запросов: записи упорядочиваются по времени поступления в скользящем окне
+ * из --reorder-window записей, а отсчёт ведётся от самой ранней записи первого окна. Запись, опоздавшая
+ * больше чем на окно, отправляется сразу. Запросы отправляются с исходными интервалами, делёнными на --speed;
+ * при --speed=0 они отправляются без пауз. Количество одновременно выполняемых запросов ограничено
+ * --max-in-flight. Задержка отсчитывается от запланированного времени отправки, поэтому ожидание
+ * свободного места тоже попадает в отчёт. Для каждой группы запросов (метод и путь, в котором
+ * числовые идентификаторы заменены на {id}) выводятся процентили записанной и воспроизведённой задержки,
+ * их разница и количество ответов, код которых отличается от записанного. Записанное время измерено
+ * на сервере, а воспроизведённое - на клиенте, поэтому в разницу входит и сетевая задержка.</p>
+ * <p>Запуск: {@code mvn -P jmh test-compile exec:java@replay-traffic
+ * -Dexec.args="--file=traffic/requests.jsonl --target=http://localhost:8080 --speed=4"}.</p>
+ */
+public class TrafficReplayer {
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+			"upgrade");
+
+	private final Map<String, Group> groups = new TreeMap<>();
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+	private final String target;
+	private final double speed;
+	private final Semaphore inFlight;
+	private final int reorderWindow;
+
+	TrafficReplayer(String target, double speed, int maxInFlight, int reorderWindow) {
+		this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+		this.speed = speed;
+		this.inFlight = new Semaphore(maxInFlight);
+		this.reorderWindow = Math.max(1, reorderWindow);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String argument : args) {
+			int separator = argument.indexOf('=');
+			if (!argument.startsWith("--") || separator < 0) {
+				throw new IllegalArgumentException("Аргумент должен иметь вид --имя=значение: " + argument);
+			}
+			options.put(argument.substring(2, separator), argument.substring(separator + 1));
+		}
+		int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "256"));
+		TrafficReplayer replayer = new TrafficReplayer(options.getOrDefault("target", "http://localhost:8080"),
+				Double.parseDouble(options.getOrDefault("speed", "1")), maxInFlight,
+				Integer.parseInt(options.getOrDefault("reorder-window", "10000")));
+		BufferedReader reader = Files.newBufferedReader(Path.of(options.getOrDefault("file", "traffic/requests.jsonl")),
+				StandardCharsets.UTF_8);
+		try (Stream<TrafficRecord> records = TrafficReader.read(reader, new ObjectMapper())) {
+			long started = System.nanoTime();
+			replayer.replay(records.iterator());
+			replayer.inFlight.acquire(maxInFlight);
+			replayer.report((System.nanoTime() - started) / 1e9);
+		}
+	}
+
+	void replay(Iterator<TrafficRecord> records) throws InterruptedException {
+		PriorityQueue<TrafficRecord> window = new PriorityQueue<>(reorderWindow,
+				Comparator.comparingLong(TrafficRecord::getTimestamp));
+		long startNanos = System.nanoTime();
+		long firstTimestamp = -1;
+		while (records.hasNext() || !window.isEmpty()) {
+			while (window.size() < reorderWindow && records.hasNext()) {
+				window.add(records.next());
+			}
+			TrafficRecord record = window.poll();
+			if (firstTimestamp < 0) {
+				firstTimestamp = record.getTimestamp();
+				startNanos = System.nanoTime();
+			}
+			long intended = System.nanoTime();
+			if (speed > 0) {
+				intended = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(record.getTimestamp() - firstTimestamp) / speed);
+				long wait = intended - System.nanoTime();
+				while (wait > 0) {
+					LockSupport.parkNanos(wait);
+					wait = intended - System.nanoTime();
+				}
+			}
+			inFlight.acquire();
+			send(record, intended);
+		}
+	}
+
+	private void send(TrafficRecord record, long intended) {
+		Group group;
+		synchronized (groups) {
+			group = groups.computeIfAbsent(groupKey(record), key -> new Group());
+		}
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target + record.getUri()))
+				.timeout(Duration.ofSeconds(30))
+				.method(record.getMethod(), record.getBody() == null
+						? HttpRequest.BodyPublishers.noBody()
+						: HttpRequest.BodyPublishers.ofString(record.getBody(), StandardCharsets.UTF_8));
+		if (record.getHeaders() != null) {
+			record.getHeaders().forEach((name, value) -> {
+				if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+					request.header(name, value);
+				}
+			});
+		}
+		client.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding())
+				.whenComplete((response, exception) -> {
+					long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+					group.record(record, latencyMicros, exception == null ? response.statusCode() : -1);
+					inFlight.release();
+				});
+	}
+
+	private static String groupKey(TrafficRecord record) {
+		String path = record.getUri();
+		int query = path.indexOf('?');
+		if (query >= 0) {
+			path = path.substring(0, query);
+		}
+		return record.getMethod() + " " + path.replaceAll("/\\d+(?=/|$)", "/{id}");
+	}
+
+	private void report(double seconds) {
+		List<String> lines = new ArrayList<>();
+		lines.add(String.format("Длительность: %.1f с, скорость: %s", seconds, speed > 0 ? speed + "x" : "без пауз"));
+		lines.add(String.format("%-28s %8s %12s %12s %12s %12s %12s %12s %9s",
+				"запрос", "запросов", "было p50", "стало p50", "разница p50",
+				"было p99", "стало p99", "разница p99", "код иной"));
+		synchronized (groups) {
+			groups.forEach((key, group) -> lines.add(group.line(key)));
+		}
+		System.out.println(String.join(System.lineSeparator(), lines));
+	}
+
+	/**
+	 * Задержки одной группы запросов в микросекундах.
+	 */
+	private static class Group {
+		private final Histogram recorded = new Histogram(3);
+		private final Histogram replayed = new Histogram(3);
+		private final AtomicLong statusMismatches = new AtomicLong();
+
+		synchronized void record(TrafficRecord record, long latencyMicros, int status) {
+			recorded.recordValue(Math.max(0, record.getDurationMicros()));
+			replayed.recordValue(Math.max(0, latencyMicros));
+			if (status != record.getStatus()) {
+				statusMismatches.incrementAndGet();
+			}
+		}
+
+		synchronized String line(String key) {
+			double recordedP50 = recorded.getValueAtPercentile(50) / 1000.0;
+			double replayedP50 = replayed.getValueAtPercentile(50) / 1000.0;
+			double recordedP99 = recorded.getValueAtPercentile(99) / 1000.0;
+			double replayedP99 = replayed.getValueAtPercentile(99) / 1000.0;
+			return String.format("%-28s %8d %9.2f мс %9.2f мс %+9.2f мс %9.2f мс %9.2f мс %+9.2f мс %9d",
+					key, replayed.getTotalCount(), recordedP50, replayedP50, replayedP50 - recordedP50,
+					recordedP99, replayedP99, replayedP99 - recordedP99, statusMismatches.get());
+		}
+	}
+}
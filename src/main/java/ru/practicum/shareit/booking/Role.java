@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Роль пользователя по отношению к бронированию. Может принимать одно из следующих значений:
+ * <ul>
+ *     <li>OWNER - владелец забронированной вещи;</li>
+ *     <li>BOOKER - арендатор вещи.</li>
+ * </ul>
+ */
+public enum Role {
+    OWNER,
+    BOOKER
+}
@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.calendar;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInterval;
+import ru.practicum.shareit.booking.dto.FreeSlot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.db.BookingDbRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.utility.AfterCommit;
+
+import java.time.temporal.ChronoUnit;
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Класс BookingCalendar - индекс периодов бронирования вещей в оперативной памяти.
+ * Для каждой вещи хранит периоды бронирований со статусами {@link Status#WAITING} и {@link Status#APPROVED}.</p>
+ * <p>Индекс заполняется при запуске приложения и обновляется при сохранении бронирований, изменении их статуса,
+ * удалении вещей и пользователей.
+ * Периоды хранятся с точностью до микросекунды, как и в базе данных.</p>
+ * <p>Закончившиеся периоды удаляются при добавлении бронирования вещи и периодически в фоне с интервалом
+ * shareit.booking-calendar.prune-delay миллисекунд, поэтому свободные промежутки определяются
+ * начиная с текущего момента.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingCalendar {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final BookingDbRepository bookingRepository;
+    private final Map<Integer, ItemCalendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Метод load заполняет индекс периодами всех действующих бронирований.
+     */
+    @PostConstruct
+    public void load() {
+        List<BookingInterval> intervals = bookingRepository.findAllIntervalsByStatusIn(ACTIVE_STATUSES);
+        calendars.clear();
+        intervals.forEach(interval -> calendars.computeIfAbsent(interval.getItemId(), id -> new ItemCalendar())
+                .add(interval.getId(), toMicros(interval.getDateFrom()), toMicros(interval.getDateTo())));
+        log.info("Календарь бронирований: загружено {} бронирований", intervals.size());
+    }
+
+    /**
+     * Метод isFree проверяет, что период не пересекается с действующими бронированиями вещи.
+     * @param itemId идентификатор вещи
+     * @param start дата и время начала периода
+     * @param end дата и время окончания периода
+     * @return true, если вещь свободна в течение всего периода
+     */
+    public boolean isFree(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        ItemCalendar calendar = calendars.get(itemId);
+        return calendar == null || !calendar.overlaps(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Метод register добавляет период бронирования в индекс или удаляет его,
+     * если бронирование больше не является действующим.
+     * @param booking объект класса {@link Booking}
+     */
+    public void register(Booking booking) {
+        Integer itemId = booking.getItem().getId();
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            ItemCalendar calendar = calendars.computeIfAbsent(itemId, id -> new ItemCalendar());
+            calendar.prune(toMicros(LocalDateTime.now()));
+            calendar.add(booking.getId(), toMicros(booking.getStart()), toMicros(booking.getEnd()));
+        } else {
+            ItemCalendar calendar = calendars.get(itemId);
+            if (calendar != null) {
+                calendar.remove(booking.getId());
+            }
+        }
+    }
+
+    /**
+     * Метод removeItem удаляет из индекса все периоды бронирования вещи после фиксации транзакции.
+     * @param itemId идентификатор вещи
+     */
+    public void removeItem(Integer itemId) {
+        AfterCommit.run(() -> calendars.remove(itemId));
+    }
+
+    /**
+     * Метод onUserDeleted удаляет из индекса периоды, которые база данных удалит каскадно вместе с пользователем:
+     * все бронирования его вещей и его собственные бронирования. Бронирования пользователя читаются
+     * до удаления, а индекс изменяется после фиксации транзакции.
+     * @param event событие удаления пользователя
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        List<BookingInterval> booked = bookingRepository.findAllIntervalsByBookerIdAndStatusIn(
+                event.getUserId(), ACTIVE_STATUSES);
+        AfterCommit.run(() -> {
+            event.getOwnedItems().forEach(item -> calendars.remove(item.getId()));
+            for (BookingInterval interval : booked) {
+                ItemCalendar calendar = calendars.get(interval.getItemId());
+                if (calendar != null) {
+                    calendar.remove(interval.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * Метод prune удаляет из индекса закончившиеся периоды бронирования всех вещей.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-calendar.prune-delay:3600000}")
+    public void prune() {
+        long now = toMicros(LocalDateTime.now());
+        calendars.values().forEach(calendar -> calendar.prune(now));
+    }
+
+    /**
+     * Метод findFreeSlots возвращает свободные от бронирований промежутки времени внутри периода.
+     * Часть периода до текущего момента не учитывается.
+     * @param itemId идентификатор вещи
+     * @param from дата и время начала периода
+     * @param to дата и время окончания периода
+     * @return список свободных промежутков, преобразованных в {@link FreeSlot}
+     */
+    public List<FreeSlot> findFreeSlots(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        long fromMicros = Math.max(toMicros(from), toMicros(LocalDateTime.now()));
+        long toMicros = toMicros(to);
+        if (fromMicros >= toMicros) {
+            return List.of();
+        }
+        ItemCalendar calendar = calendars.get(itemId);
+        List<long[]> slots = calendar == null ? List.of(new long[]{fromMicros, toMicros})
+                : calendar.freeSlots(fromMicros, toMicros);
+        return slots.stream()
+                .map(slot -> new FreeSlot(toDateTime(slot[0]), toDateTime(slot[1])))
+                .collect(Collectors.toList());
+    }
+
+    private static long toMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(EPOCH, dateTime);
+    }
+
+    private static LocalDateTime toDateTime(long micros) {
+        return EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
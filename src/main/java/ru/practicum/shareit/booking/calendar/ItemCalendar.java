@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.calendar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>Класс ItemCalendar хранит интервалы бронирований одной вещи в виде упакованных массивов примитивов:
+ * начало и окончание интервала в микросекундах эпохи и идентификатор бронирования.
+ * Интервалы полуоткрытые - [start, end) - и упорядочены по началу; пустые интервалы не хранятся
+ * и ни с чем не пересекаются.</p>
+ * <p>Для каждой позиции дополнительно хранится наибольшее окончание среди интервалов до неё включительно,
+ * что позволяет проверять пересечение с новым интервалом двоичным поиском за O(log n).</p>
+ * <p>Методы класса синхронизированы.</p>
+ */
+class ItemCalendar {
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private long[] maxEnds = new long[4];
+    private int[] bookingIds = new int[4];
+    private int size;
+
+    synchronized boolean overlaps(long from, long to) {
+        if (from >= to) {
+            return false;
+        }
+        int count = countStartingBefore(to);
+        return count > 0 && maxEnds[count - 1] > from;
+    }
+
+    synchronized void add(int bookingId, long start, long end) {
+        removeBooking(bookingId);
+        if (start >= end) {
+            return;
+        }
+        if (size == starts.length) {
+            int capacity = size * 2;
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+            bookingIds = Arrays.copyOf(bookingIds, capacity);
+        }
+        int position = countStartingBefore(start + 1);
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        System.arraycopy(bookingIds, position, bookingIds, position + 1, size - position);
+        starts[position] = start;
+        ends[position] = end;
+        bookingIds[position] = bookingId;
+        size++;
+        recalculateMaxEnds(position);
+    }
+
+    synchronized void remove(int bookingId) {
+        removeBooking(bookingId);
+    }
+
+    /**
+     * Метод prune удаляет интервалы, закончившиеся не позже переданного момента: они уже не могут пересечься
+     * с новыми бронированиями.
+     * @param moment момент времени в микросекундах эпохи
+     */
+    synchronized void prune(long moment) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (ends[i] > moment) {
+                starts[kept] = starts[i];
+                ends[kept] = ends[i];
+                bookingIds[kept] = bookingIds[i];
+                kept++;
+            }
+        }
+        if (kept < size) {
+            size = kept;
+            recalculateMaxEnds(0);
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Метод freeSlots возвращает свободные от бронирований промежутки внутри интервала [from, to).
+     * @param from начало интервала в микросекундах эпохи
+     * @param to окончание интервала в микросекундах эпохи
+     * @return список пар {начало, окончание} свободных промежутков в микросекундах эпохи
+     */
+    synchronized List<long[]> freeSlots(long from, long to) {
+        List<long[]> slots = new ArrayList<>();
+        long cursor = from;
+        for (int i = firstEndingAfter(from); i < size && starts[i] < to; i++) {
+            if (starts[i] > cursor) {
+                slots.add(new long[]{cursor, starts[i]});
+            }
+            cursor = Math.max(cursor, ends[i]);
+        }
+        if (cursor < to) {
+            slots.add(new long[]{cursor, to});
+        }
+        return slots;
+    }
+
+    private void removeBooking(int bookingId) {
+        for (int i = 0; i < size; i++) {
+            if (bookingIds[i] == bookingId) {
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                System.arraycopy(bookingIds, i + 1, bookingIds, i, size - i - 1);
+                size--;
+                recalculateMaxEnds(i);
+                return;
+            }
+        }
+    }
+
+    private void recalculateMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    /**
+     * Количество интервалов, начинающихся строго раньше переданного момента.
+     */
+    private int countStartingBefore(long moment) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < moment) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Позиция первого интервала, для которого наибольшее окончание среди предыдущих интервалов больше момента.
+     */
+    private int firstEndingAfter(long moment) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= moment) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
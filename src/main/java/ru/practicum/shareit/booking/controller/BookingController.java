@@ -1,16 +1,24 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.utility.KeysetPage;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Класс BookingController - контроллер, который обрабатывает GET, POST, PATCH и DELETE-методы запросов по эндпоинту /bookings.
@@ -21,20 +29,32 @@ import java.util.List;
 @RestController
 @RequestMapping("/bookings")
 public class BookingController {
+    private static final int STREAM_CHUNK_SIZE = 500;
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    @Value("#{'${shareit.read-path:jpa}' == 'jdbc'}")
+    private boolean jdbcReadPath;
 
     /**
      * Метод findAllBookingsForBooker обрабатывает GET-метод запроса к эндпоинту /bookings,
-     * обращается к методу {@link BookingService#findAllBookingsForBooker(Integer, String)}.
+     * обращается к методу {@link BookingService#findAllBookingsForBooker(Integer, String, Integer, Integer)}.
      * @param userId идентификатор арендатора вещей
      * @param state необязательный параметр, выражающий критерий для отбора арендованных вещей (по умолчанию ALL)
-     * @return список всех арендованных вещей пользователя, преобразованных в {@link BookingResponseDto}.
+     * @param cursor необязательный параметр, идентификатор последнего бронирования предыдущей страницы
+     * @param size необязательный параметр, размер страницы (по умолчанию {@value KeysetPage#DEFAULT_SIZE})
+     * @return страница арендованных вещей пользователя, преобразованных в {@link BookingResponseDto};
+     * при включённом пути чтения JDBC страница записывается в ответ напрямую
      */
     @GetMapping
-    public List<BookingResponseDto> findAllBookingsForBooker(@RequestHeader("X-Sharer-User-Id") Integer userId,
-                                                             @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<StreamingResponseBody> findAllBookingsForBooker(
+            @RequestHeader("X-Sharer-User-Id") Integer userId, @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = KeysetPage.DEFAULT_SIZE) Integer size) {
         log.info("Контроллер: GET-запрос по эндпоинту /bookings от пользователя с id {}", userId);
-        return bookingService.findAllBookingsForBooker(userId, state);
+        if (jdbcReadPath) {
+            return json(out -> bookingService.writeAllBookingsForBooker(userId, state, cursor, size, out));
+        }
+        return json(bookingService.findAllBookingsForBooker(userId, state, cursor, size));
     }
 
     /**
@@ -53,16 +73,56 @@ public class BookingController {
 
     /**
      * Метод findBookingsForOwner обрабатывает GET-метод запроса к эндпоинту /bookings/owner, обращается к
-     * методу {@link BookingService#findAllBookingForOwner(Integer, String)}.
+     * методу {@link BookingService#findAllBookingForOwner(Integer, String, Integer, Integer)}.
      * @param userId идентификатор арендодателя (владельца) вещи(ей)
      * @param state необязательный параметр, выражающий критерий для отбора арендованных вещей (по умолчанию ALL)
-     * @return список всех арендованных вещей арендодателя, преобразованных в {@link BookingResponseDto}.
+     * @param cursor необязательный параметр, идентификатор последнего бронирования предыдущей страницы
+     * @param size необязательный параметр, размер страницы (по умолчанию {@value KeysetPage#DEFAULT_SIZE})
+     * @return страница арендованных вещей арендодателя, преобразованных в {@link BookingResponseDto};
+     * при включённом пути чтения JDBC страница записывается в ответ напрямую
      */
     @GetMapping("/owner")
-    public List<BookingResponseDto> findBookingsForOwner(
-            @RequestHeader("X-Sharer-User-Id") Integer userId, @RequestParam(defaultValue = "ALL") String state) {
+    public ResponseEntity<StreamingResponseBody> findBookingsForOwner(
+            @RequestHeader("X-Sharer-User-Id") Integer userId, @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) Integer cursor,
+            @RequestParam(defaultValue = KeysetPage.DEFAULT_SIZE) Integer size) {
         log.info("Контроллер: GET-запрос по эндпоинту /bookings/owner от пользователя с id {} для состояния {}", userId, state);
-        return bookingService.findAllBookingForOwner(userId, state);
+        if (jdbcReadPath) {
+            return json(out -> bookingService.writeAllBookingForOwner(userId, state, cursor, size, out));
+        }
+        return json(bookingService.findAllBookingForOwner(userId, state, cursor, size));
+    }
+
+    /**
+     * Метод streamAllBookingsForBooker обрабатывает GET-метод запроса к эндпоинту /bookings/stream
+     * и отвечает в формате application/x-ndjson. Возвращает все бронирования арендатора потоком,
+     * по одному объекту {@link BookingResponseDto} в строке, не накапливая весь список в памяти.
+     * @param userId идентификатор арендатора вещей
+     * @param state необязательный параметр, выражающий критерий для отбора арендованных вещей (по умолчанию ALL)
+     * @return поток арендованных вещей пользователя в формате NDJSON
+     */
+    @GetMapping(path = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookingsForBooker(
+            @RequestHeader("X-Sharer-User-Id") Integer userId, @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Контроллер: GET-запрос по эндпоинту /bookings/stream от пользователя с id {}", userId);
+        return streamBookings(bookingService.pageAllBookingsForBooker(
+                userId, state, LocalDateTime.now(), STREAM_CHUNK_SIZE));
+    }
+
+    /**
+     * Метод streamBookingsForOwner обрабатывает GET-метод запроса к эндпоинту /bookings/owner/stream
+     * и отвечает в формате application/x-ndjson. Возвращает все бронирования вещей владельца потоком,
+     * по одному объекту {@link BookingResponseDto} в строке, не накапливая весь список в памяти.
+     * @param userId идентификатор арендодателя (владельца) вещи(ей)
+     * @param state необязательный параметр, выражающий критерий для отбора арендованных вещей (по умолчанию ALL)
+     * @return поток арендованных вещей арендодателя в формате NDJSON
+     */
+    @GetMapping(path = "/owner/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookingsForOwner(
+            @RequestHeader("X-Sharer-User-Id") Integer userId, @RequestParam(defaultValue = "ALL") String state) {
+        log.info("Контроллер: GET-запрос по эндпоинту /bookings/owner/stream от пользователя с id {}", userId);
+        return streamBookings(bookingService.pageAllBookingForOwner(
+                userId, state, LocalDateTime.now(), STREAM_CHUNK_SIZE));
     }
 
     /**
@@ -103,4 +163,47 @@ public class BookingController {
         log.info("Контроллер: PATCH-запрос по эндпоинту /bookings/{} от пользователя с id {}", userId, userId);
         return bookingService.update(bookingId, userId, status);
     }
+
+    /**
+     * Приватный метод json возвращает тело ответа в формате application/json, записанное переданной функцией.
+     * Ошибки, возникшие до начала записи, обрабатываются {@link ru.practicum.shareit.exception.ErrorHandler}.
+     * @param body функция, записывающая тело ответа
+     * @return ответ с телом, которое записывается потоком
+     */
+    private ResponseEntity<StreamingResponseBody> json(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> json(List<BookingResponseDto> bookings) {
+        return json(out -> out.write(objectMapper.writeValueAsBytes(bookings)));
+    }
+
+    /**
+     * Приватный метод streamBookings выгружает бронирования постранично и записывает каждую страницу в ответ
+     * сразу после её получения. Все страницы отбираются относительно момента поступления запроса,
+     * поэтому бронь не переходит между состояниями посреди выгрузки. Пользователь и критерий отбора проверяются
+     * сервисом один раз при создании функции выгрузки, до начала записи ответа, поэтому ошибки валидации
+     * обрабатываются {@link ru.practicum.shareit.exception.ErrorHandler}.
+     * @param pages функция, возвращающая страницу бронирований, следующую за переданным курсором
+     * @return тело ответа, которое записывается потоком
+     */
+    private ResponseEntity<StreamingResponseBody> streamBookings(Function<Integer, List<BookingResponseDto>> pages) {
+        StreamingResponseBody body = outputStream -> {
+            List<BookingResponseDto> page = pages.apply(null);
+            while (!page.isEmpty()) {
+                for (BookingResponseDto booking : page) {
+                    outputStream.write(objectMapper.writeValueAsBytes(booking));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                if (page.size() < STREAM_CHUNK_SIZE) {
+                    break;
+                }
+                page = pages.apply(page.get(page.size() - 1).getId());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция BookingInterval описывает период бронирования вещи. Содержит поля:
+ * <ul>
+ *     <li>id - идентификатор бронирования, тип {@link Integer};</li>
+ *     <li>itemId - идентификатор вещи, тип {@link Integer};</li>
+ *     <li>dateFrom - дата и время начала бронирования, тип {@link LocalDateTime};</li>
+ *     <li>dateTo - дата и время окончания бронирования, тип {@link LocalDateTime}.</li>
+ * </ul>
+ */
+public interface BookingInterval {
+    Integer getId();
+
+    Integer getItemId();
+
+    LocalDateTime getDateFrom();
+
+    LocalDateTime getDateTo();
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Неизменяемая проекция бронирования для чтения. Содержит только те столбцы бронирования, вещи и арендатора,
+ * которые попадают в {@link BookingResponseDto}, и не регистрируется в контексте персистентности.
+ */
+@Value
+public class BookingRow {
+    Integer id;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+    Integer itemId;
+    String itemName;
+    String itemDescription;
+    Integer itemOwnerId;
+    Boolean itemAvailable;
+    Integer bookerId;
+    String bookerName;
+    String bookerEmail;
+}
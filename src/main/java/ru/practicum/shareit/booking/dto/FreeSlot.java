@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object для свободного от бронирований промежутка времени.
+ * Dto-класс FreeSlot содержит поля:
+ * <ul>
+ *     <li>start - дата и время начала промежутка, тип {@link LocalDateTime};</li>
+ *     <li>end - дата и время окончания промежутка, тип {@link LocalDateTime}.</li>
+ * </ul>
+ */
+@Data
+@AllArgsConstructor
+public class FreeSlot {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+import ru.practicum.shareit.booking.Status;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * <p>Data-класс <strong>BookingView</strong> - строка денормализованной таблицы booking_views для чтения списков
+ * бронирований. Содержит бронирование вместе с нужными для ответа полями вещи и арендатора,
+ * поэтому выборка по владельцу или арендатору не требует соединения таблиц. Поля:</p>
+ * <ul>
+ *     <li>id - идентификатор бронирования, тип {@link Integer};</li>
+ *     <li>start, end - дата и время начала и окончания бронирования, тип {@link LocalDateTime};</li>
+ *     <li>status - статус бронирования, тип {@link Status};</li>
+ *     <li>itemId, itemName, itemDescription, itemAvailable - поля вещи;</li>
+ *     <li>ownerId - идентификатор владельца вещи, тип {@link Integer};</li>
+ *     <li>bookerId, bookerName, bookerEmail - поля арендатора.</li>
+ * </ul>
+ * <p>Строка создаётся вместе с бронированием, а поля вещи и арендатора обновляются при их изменении.</p>
+ */
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_views")
+public class BookingView implements Persistable<Integer> {
+    @Id
+    @Column(name = "booking_id")
+    private Integer id;
+    @Column(name = "date_from", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "date_to", nullable = false)
+    private LocalDateTime end;
+    @Column(name = "status", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+    @Column(name = "item_id", nullable = false)
+    private Integer itemId;
+    @Column(name = "item_name", nullable = false)
+    private String itemName;
+    @Column(name = "item_description", nullable = false)
+    private String itemDescription;
+    @Column(name = "item_available", nullable = false)
+    private Boolean itemAvailable;
+    @Column(name = "owner_id", nullable = false)
+    private Integer ownerId;
+    @Column(name = "booker_id", nullable = false)
+    private Integer bookerId;
+    @Column(name = "booker_name", nullable = false)
+    private String bookerName;
+    @Column(name = "booker_email", nullable = false)
+    private String bookerEmail;
+    @Transient
+    @Builder.Default
+    private boolean created = true;
+
+    /**
+     * Строка сохраняется сразу вставкой, без предварительного чтения, пока она не загружена из хранилища.
+     */
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        created = false;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.repository.db;
+
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.dto.BookingRow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Интерфейс BookingCriteriaRepository содержит сигнатуру метода, который строит запрос списка бронирований
+ * по роли пользователя и критерию отбора. Реализуется в {@link BookingCriteriaRepositoryImpl}.
+ */
+public interface BookingCriteriaRepository {
+
+    /**
+     * Метод позволяет получить страницу бронирований пользователя.
+     * Для арендатора текущие бронирования упорядочены по возрастанию идентификатора,
+     * остальные страницы - по убыванию.
+     * @param role роль пользователя
+     * @param userId идентификатор пользователя
+     * @param state критерий отбора бронирований
+     * @param now момент времени, относительно которого отбираются текущие, прежние и будущие бронирования
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
+     * @return список бронирований, преобразованных в {@link BookingRow}
+     */
+    List<BookingRow> findAllByRole(Role role, Integer userId, State state, LocalDateTime now, Integer cursor, Integer size);
+}
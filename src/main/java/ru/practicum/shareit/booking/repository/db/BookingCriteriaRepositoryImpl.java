@@ -0,0 +1,116 @@
+package ru.practicum.shareit.booking.repository.db;
+
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.utility.KeysetPage;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Класс BookingCriteriaRepositoryImpl реализует {@link BookingCriteriaRepository} с помощью Criteria API.
+ * Запрос читает денормализованную таблицу {@link BookingView} без соединения с вещами и пользователями
+ * и выбирает столбцы сразу в {@link BookingRow}, минуя создание управляемых сущностей.
+ * Все значения передаются в запрос параметрами, поэтому для каждого сочетания роли и критерия отбора
+ * Hibernate и драйвер базы данных переиспользуют однажды подготовленный запрос.
+ */
+public class BookingCriteriaRepositoryImpl implements BookingCriteriaRepository {
+    private static final List<Status> FUTURE_STATUSES = List.of(Status.APPROVED, Status.WAITING);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<BookingRow> findAllByRole(Role role, Integer userId, State state, LocalDateTime now,
+                                       Integer cursor, Integer size) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRow> query = builder.createQuery(BookingRow.class);
+        Root<BookingView> booking = query.from(BookingView.class);
+
+        ParameterExpression<Integer> userParameter = builder.parameter(Integer.class, "userId");
+        ParameterExpression<Integer> cursorParameter = builder.parameter(Integer.class, "cursor");
+        ParameterExpression<LocalDateTime> nowParameter = builder.parameter(LocalDateTime.class, "now");
+        ParameterExpression<Status> statusParameter = builder.parameter(Status.class, "status");
+        ParameterExpression<Collection<?>> statusesParameter =
+                (ParameterExpression<Collection<?>>) (ParameterExpression<?>) builder.parameter(Collection.class, "statuses");
+
+        boolean ascending = role == Role.BOOKER && state == State.CURRENT;
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(role == Role.OWNER
+                ? builder.equal(booking.get("ownerId"), userParameter)
+                : builder.equal(booking.get("bookerId"), userParameter));
+        predicates.add(ascending
+                ? builder.greaterThan(booking.<Integer>get("id"), cursorParameter)
+                : builder.lessThan(booking.<Integer>get("id"), cursorParameter));
+
+        boolean usesNow = false;
+        Status status = null;
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                predicates.add(builder.lessThan(booking.<LocalDateTime>get("start"), nowParameter));
+                predicates.add(builder.greaterThan(booking.<LocalDateTime>get("end"), nowParameter));
+                usesNow = true;
+                break;
+            case PAST:
+                predicates.add(builder.equal(booking.get("status"), statusParameter));
+                predicates.add(builder.lessThan(booking.<LocalDateTime>get("end"), nowParameter));
+                status = Status.APPROVED;
+                usesNow = true;
+                break;
+            case FUTURE:
+                predicates.add(booking.get("status").in(statusesParameter));
+                predicates.add(builder.greaterThan(booking.<LocalDateTime>get("start"), nowParameter));
+                usesNow = true;
+                break;
+            case WAITING:
+                predicates.add(builder.equal(booking.get("status"), statusParameter));
+                status = Status.WAITING;
+                break;
+            case REJECTED:
+                predicates.add(builder.equal(booking.get("status"), statusParameter));
+                status = Status.REJECTED;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+
+        query.select(builder.construct(BookingRow.class,
+                        booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                        booking.get("itemId"), booking.get("itemName"), booking.get("itemDescription"),
+                        booking.get("ownerId"), booking.get("itemAvailable"),
+                        booking.get("bookerId"), booking.get("bookerName"), booking.get("bookerEmail")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending ? builder.asc(booking.<Integer>get("id")) : builder.desc(booking.<Integer>get("id")));
+
+        TypedQuery<BookingRow> typedQuery = entityManager.createQuery(query)
+                .setParameter(userParameter, userId)
+                .setParameter(cursorParameter, ascending ? KeysetPage.after(cursor) : KeysetPage.before(cursor))
+                .setMaxResults(size);
+        if (usesNow) {
+            typedQuery.setParameter(nowParameter, now);
+        }
+        if (status != null) {
+            typedQuery.setParameter(statusParameter, status);
+        }
+        if (state == State.FUTURE) {
+            typedQuery.setParameter(statusesParameter, FUTURE_STATUSES);
+        }
+        return typedQuery.getResultList();
+    }
+}
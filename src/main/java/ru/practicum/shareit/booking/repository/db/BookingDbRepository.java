@@ -1,152 +1,64 @@
 package ru.practicum.shareit.booking.repository.db;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс BookingDbRepository содержит сигнатуры методов для работы с сущностью {@link Booking}.
  * Расширяет {@link JpaRepository}, который реализует основные CRUD-операции.
+ * Страницы бронирований владельца и арендатора читаются из {@link BookingViewDbRepository}.
  */
 public interface BookingDbRepository extends JpaRepository<Booking, Integer> {
 
     /**
-     * Метод позволяет получить все бронирования для арендатора.
-     * @param bookerId идентификатор арендатора
-     * @return список арендованных вещей, преобразованных в {@link Booking}
+     * Метод позволяет получить идентификатор забронированной вещи без загрузки бронирования.
+     * @param bookingId идентификатор бронирования
+     * @return идентификатор вещи
      */
-    List<Booking> findAllByBookerIdOrderByIdDesc(Integer bookerId);
+    @Query("select b.item.id from Booking as b where b.id = ?1")
+    Optional<Integer> findItemIdById(Integer bookingId);
 
     /**
-     * Метод позволяет получить все текущие бронирования для арендатора.
-     * @param bookerId идентификатор арендатора
-     * @param start дата и время начала бронирования
-     * @param end дата и время окончания бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     */
-    List<Booking> findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByIdAsc(
-            Integer bookerId, LocalDateTime start, LocalDateTime end
-    );
-
-    /**
-     * Метод позволяет получить все прежние бронирования для арендатора.
-     * @param bookerId идентификатор арендатора
+     * Метод позволяет проверить, есть ли у пользователя завершённое бронирование вещи с определённым статусом.
+     * Условия заданы по внешним ключам бронирования, поэтому запрос обходится без соединения с вещами
+     * и пользователями и использует индекс IDX_BOOKINGS_ITEM_BOOKER.
+     * @param itemId идентификатор вещи
+     * @param userId идентификатор пользователя
      * @param status статус бронирования
-     * @param start дата и время начала бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
+     * @param end дата и время, до которых бронирование должно закончиться
+     * @return true, если такое бронирование есть
      * @see Status
      */
-    List<Booking> findAllByBookerIdAndStatusAndEndIsBeforeOrderByIdDesc(
-            Integer bookerId, Status status, LocalDateTime start
-    );
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = ?1 and b.booker.id = ?2 and b.status = ?3 and b.end < ?4")
+    boolean existsFinishedBooking(Integer itemId, Integer userId, Status status, LocalDateTime end);
 
     /**
-     * Метод позволяет получить все будущие бронирования для арендатора.
-     * @param bookerId идентификатор арендатора
-     * @param status статус бронирования
-     * @param end дата и время окончания бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
+     * Метод позволяет получить периоды всех бронирований с определёнными статусами.
+     * @param statuses статусы бронирования
+     * @return список периодов бронирования, преобразованных в {@link BookingInterval}
      * @see Status
      */
-    List<Booking> findAllByBookerIdAndStatusInAndStartIsAfterOrderByIdDesc(
-            Integer bookerId, List<Status> status, LocalDateTime end
-    );
+    @Query("select b.id as id, b.item.id as itemId, b.start as dateFrom, b.end as dateTo " +
+            "from Booking as b where b.status in ?1")
+    List<BookingInterval> findAllIntervalsByStatusIn(Collection<Status> statuses);
 
     /**
-     * Метод позволяет получить все бронирования с определённым статусом для арендатора.
+     * Метод позволяет получить периоды бронирований арендатора с определёнными статусами.
      * @param bookerId идентификатор арендатора
-     * @param status статус бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     * @see Status
-     */
-    List<Booking> findAllByBookerIdAndStatusOrderByIdDesc(Integer bookerId, Status status);
-
-    /**
-     * Метод позволяет владельцу вещей получить информацию о всех бронях на них
-     * @param ownerId идентификатор арендодатора
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     */
-    List<Booking> findAllByItemOwnerIdOrderByIdDesc(Integer ownerId);
-
-    /**
-     *  Метод позволяет владельцу вещей получить информацию о текущих бронях на них
-     * @param ownerId идентификатор арендодатора
-     * @param start дата и время начала бронирования
-     * @param end дата и время окончания бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     */
-    List<Booking> findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByIdDesc(
-            Integer ownerId, LocalDateTime start, LocalDateTime end
-    );
-
-    /**
-     * Метод позволяет владельцу вещей получить информацию о прежних бронях на них
-     * @param ownerId идентификатор арендодатора
-     * @param status статус бронирования
-     * @param start дата и время начала бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     * @see Status
-     */
-    List<Booking> findAllByItemOwnerIdAndStatusAndEndIsBeforeOrderByIdDesc(
-            Integer ownerId, Status status, LocalDateTime start
-    );
-
-    /**
-     * Метод позволяет владельцу вещей получить информацию о будущих бронях на них
-     * @param ownerId идентификатор арендодатора
-     * @param status статус бронирования
-     * @param end дата и время окончания бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     * @see Status
-     */
-    List<Booking> findAllByItemOwnerIdAndStatusInAndStartIsAfterOrderByIdDesc(
-            Integer ownerId, List<Status> status, LocalDateTime end
-    );
-
-    /**
-     * Метод позволяет владельцу вещей получить информацию о бронях на них с определённым статусом
-     * @param ownerId идентификатор арендодатора
-     * @param status статус бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     * @see Status
-     */
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByIdDesc(Integer ownerId, Status status);
-
-    /**
-     * Метод позволяет получить информацию о забронированных к настоящему времени вещах.
-     * @param itemId идентификатор вещи
-     * @param now настоящее время бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     */
-    List<Booking> findByItemIdAndStartIsBeforeOrderByEndDesc(Integer itemId, LocalDateTime now);
-
-
-    /**
-     * Метод позволяет получить информацию будующих бронированиях с определённым статусом.
-     * @param itemId идентификатор вещи
-     * @param now настоящее время бронирования
-     * @param status статус бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
-     * @see Status
-     */
-    List<Booking> findByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
-            Integer itemId, LocalDateTime now, Status status
-    );
-
-    /**
-     * Метод позволяет получить информацию о бронированиях с определённым статусом
-     * для определённого пользователя .
-     * @param itemId идентификатор вещи
-     * @param userId идентификатор пользователя
-     * @param status статус бронирования
-     * @param start дата ивремя начала бронирования
-     * @return список арендованных вещей, преобразованных в {@link Booking}
+     * @param statuses статусы бронирования
+     * @return список периодов бронирования, преобразованных в {@link BookingInterval}
      * @see Status
      */
-    List<Booking> findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(
-            Integer itemId, Integer userId, Status status, LocalDateTime start
-    );
+    @Query("select b.id as id, b.item.id as itemId, b.start as dateFrom, b.end as dateTo " +
+            "from Booking as b where b.booker.id = ?1 and b.status in ?2")
+    List<BookingInterval> findAllIntervalsByBookerIdAndStatusIn(Integer bookerId, Collection<Status> statuses);
 }
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.repository.db;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.model.BookingView;
+
+import java.util.Optional;
+
+/**
+ * Интерфейс BookingViewDbRepository для работы с денормализованной таблицей booking_views.
+ * Изменяющие методы вызываются в транзакции, изменяющей бронирование, вещь или пользователя.
+ */
+public interface BookingViewDbRepository extends JpaRepository<BookingView, Integer>, BookingCriteriaRepository {
+
+    /**
+     * Метод позволяет получить бронирование вместе с вещью и арендатором без соединения таблиц.
+     * @param bookingId идентификатор бронирования
+     * @return бронирование, преобразованное в {@link BookingRow}
+     */
+    @Query("select new ru.practicum.shareit.booking.dto.BookingRow(v.id, v.start, v.end, v.status, " +
+            "v.itemId, v.itemName, v.itemDescription, v.ownerId, v.itemAvailable, " +
+            "v.bookerId, v.bookerName, v.bookerEmail) from BookingView as v where v.id = ?1")
+    Optional<BookingRow> findRowById(Integer bookingId);
+
+    @Modifying
+    @Query("update BookingView as v set v.status = :status where v.id = :bookingId")
+    void updateStatus(@Param("bookingId") Integer bookingId, @Param("status") Status status);
+
+    @Modifying
+    @Query("update BookingView as v set v.itemName = :name, v.itemDescription = :description, " +
+            "v.itemAvailable = :available where v.itemId = :itemId")
+    void updateItem(@Param("itemId") Integer itemId, @Param("name") String name,
+                    @Param("description") String description, @Param("available") Boolean available);
+
+    @Modifying
+    @Query("update BookingView as v set v.bookerName = :name, v.bookerEmail = :email where v.bookerId = :bookerId")
+    void updateBooker(@Param("bookerId") Integer bookerId, @Param("name") String name, @Param("email") String email);
+}
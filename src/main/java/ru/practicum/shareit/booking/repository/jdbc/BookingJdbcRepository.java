@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking.repository.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.utility.KeysetPage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>Класс BookingJdbcRepository читает страницы бронирований запросом SQL и записывает строки результата
+ * сразу в JSON потоковым {@link JsonGenerator}, не создавая сущностей и объектов для передачи данных.</p>
+ * <p>Структура и порядок полей совпадают с сериализацией {@link BookingResponseDto}, а даты и статусы
+ * записываются сериализаторами приложения, поэтому ответ побайтно совпадает с ответом через JPA.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingJdbcRepository {
+    private static final String SELECT = "select b.booking_id, b.date_from, b.date_to, b.status, " +
+            "b.item_id, b.item_name, b.item_description, b.owner_id, b.item_available, " +
+            "b.booker_id, b.booker_name, b.booker_email " +
+            "from booking_views as b ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Метод записывает в поток JSON-массив страницы бронирований пользователя.
+     * Отбор и порядок бронирований совпадают с
+     * {@link ru.practicum.shareit.booking.repository.db.BookingCriteriaRepository#findAllByRole}
+     * и так же читаются из денормализованной таблицы booking_views.
+     * @param role роль пользователя
+     * @param userId идентификатор пользователя
+     * @param state критерий отбора бронирований
+     * @param now момент времени, относительно которого отбираются текущие, прежние и будущие бронирования
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
+     * @param out поток, в который записывается ответ
+     */
+    public void writeAllByRole(Role role, Integer userId, State state, LocalDateTime now,
+                               Integer cursor, Integer size, OutputStream out) throws IOException {
+        boolean ascending = role == Role.BOOKER && state == State.CURRENT;
+        StringBuilder sql = new StringBuilder(SELECT)
+                .append(role == Role.OWNER ? "where b.owner_id = :userId " : "where b.booker_id = :userId ")
+                .append(ascending ? "and b.booking_id > :cursor " : "and b.booking_id < :cursor ");
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("cursor", ascending ? KeysetPage.after(cursor) : KeysetPage.before(cursor))
+                .addValue("size", size);
+        switch (state) {
+            case ALL:
+                break;
+            case CURRENT:
+                sql.append("and b.date_from < :now and b.date_to > :now ");
+                parameters.addValue("now", now);
+                break;
+            case PAST:
+                sql.append("and b.status = :status and b.date_to < :now ");
+                parameters.addValue("status", Status.APPROVED.name()).addValue("now", now);
+                break;
+            case FUTURE:
+                sql.append("and b.status in (:statuses) and b.date_from > :now ");
+                parameters.addValue("statuses", List.of(Status.APPROVED.name(), Status.WAITING.name()))
+                        .addValue("now", now);
+                break;
+            case WAITING:
+                sql.append("and b.status = :status ");
+                parameters.addValue("status", Status.WAITING.name());
+                break;
+            case REJECTED:
+                sql.append("and b.status = :status ");
+                parameters.addValue("status", Status.REJECTED.name());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown state: " + state);
+        }
+        sql.append(ascending ? "order by b.booking_id asc " : "order by b.booking_id desc ").append("limit :size");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartArray();
+            jdbcTemplate.query(sql.toString(), parameters, resultSet -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", resultSet.getInt("booking_id"));
+                    generator.writeFieldName("start");
+                    generator.writeObject(resultSet.getObject("date_from", LocalDateTime.class));
+                    generator.writeFieldName("end");
+                    generator.writeObject(resultSet.getObject("date_to", LocalDateTime.class));
+                    generator.writeObjectFieldStart("item");
+                    generator.writeNumberField("id", resultSet.getInt("item_id"));
+                    generator.writeStringField("name", resultSet.getString("item_name"));
+                    generator.writeStringField("description", resultSet.getString("item_description"));
+                    generator.writeNumberField("ownerId", resultSet.getInt("owner_id"));
+                    generator.writeBooleanField("available", resultSet.getBoolean("item_available"));
+                    generator.writeEndObject();
+                    generator.writeObjectFieldStart("booker");
+                    generator.writeNumberField("id", resultSet.getInt("booker_id"));
+                    generator.writeStringField("name", resultSet.getString("booker_name"));
+                    generator.writeStringField("email", resultSet.getString("booker_email"));
+                    generator.writeEndObject();
+                    generator.writeStringField("status", resultSet.getString("status"));
+                    generator.writeEndObject();
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.repository.jdbc;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Класс ItemBookingSummaryRepository хранит в таблице item_booking_summary последнее и следующее
+ * бронирование каждой вещи и пересчитывает их по таблице bookings.</p>
+ * <p>Изменение бронирований вещи помечает строку устаревшей и увеличивает её версию в транзакции изменения.
+ * Пересчитанная строка записывается только если версия не изменилась с момента её чтения,
+ * поэтому пересчёт, начатый до изменения бронирований, не перезапишет более новое состояние.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemBookingSummaryRepository {
+    private static final String LAST_AND_NEXT = "select ranked.id, ranked.item_id, ranked.booker_id, ranked.kind from (" +
+            "select b.booking_id as id, b.item_id, b.user_id as booker_id, 'LAST' as kind, " +
+            "row_number() over (partition by b.item_id order by b.date_to desc) as rn " +
+            "from bookings as b where b.item_id in (:itemIds) and b.date_from < :now " +
+            "union all " +
+            "select b.booking_id, b.item_id, b.user_id, 'NEXT', " +
+            "row_number() over (partition by b.item_id order by b.date_from asc) " +
+            "from bookings as b where b.item_id in (:itemIds) and b.date_from > :now and b.status = 'APPROVED'" +
+            ") as ranked where ranked.rn = 1";
+    private static final String NEXT_START = "select b.item_id, min(b.date_from) from bookings as b " +
+            "where b.item_id in (:itemIds) and b.date_from >= :now group by b.item_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Метод создаёт пустую строку для новой вещи, у которой ещё нет бронирований.
+     * @param itemId идентификатор вещи
+     */
+    public void create(Integer itemId) {
+        jdbcTemplate.update("insert into item_booking_summary (item_id) values (:itemId)",
+                new MapSqlParameterSource("itemId", itemId));
+    }
+
+    /**
+     * Метод создаёт устаревшие строки для существующих вещей, у которых строки ещё нет.
+     * @param itemIds идентификаторы вещей
+     * @param now настоящее время
+     */
+    public void createMissing(Collection<Integer> itemIds, LocalDateTime now) {
+        try {
+            jdbcTemplate.update("insert into item_booking_summary (item_id, refresh_at) " +
+                            "select i.item_id, :now from items as i where i.item_id in (:itemIds) and not exists " +
+                            "(select 1 from item_booking_summary as s where s.item_id = i.item_id)",
+                    new MapSqlParameterSource("itemIds", itemIds).addValue("now", now));
+        } catch (DuplicateKeyException exception) {
+            // строку одновременно создал другой запрос
+        }
+    }
+
+    public List<ItemBookingSummary> findAllByItemIdIn(Collection<Integer> itemIds) {
+        return jdbcTemplate.query("select item_id, last_booking_id, last_booker_id, next_booking_id, " +
+                        "next_booker_id, refresh_at, version from item_booking_summary where item_id in (:itemIds)",
+                new MapSqlParameterSource("itemIds", itemIds),
+                (resultSet, rowNum) -> new ItemBookingSummary(
+                        resultSet.getInt("item_id"),
+                        getInteger(resultSet, "last_booking_id"),
+                        getInteger(resultSet, "last_booker_id"),
+                        getInteger(resultSet, "next_booking_id"),
+                        getInteger(resultSet, "next_booker_id"),
+                        resultSet.getObject("refresh_at", LocalDateTime.class),
+                        resultSet.getLong("version")));
+    }
+
+    /**
+     * Метод возвращает вещи, строки которых устарели к указанному моменту.
+     * @param now настоящее время
+     * @param limit максимальное количество вещей
+     * @return список идентификаторов вещей
+     */
+    public List<Integer> findStaleItemIds(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList("select item_id from item_booking_summary where refresh_at <= :now " +
+                        "order by refresh_at limit :limit",
+                new MapSqlParameterSource("now", now).addValue("limit", limit), Integer.class);
+    }
+
+    /**
+     * Метод помечает строку вещи устаревшей. Вызывается в транзакции, изменяющей бронирования вещи.
+     * @param itemId идентификатор вещи
+     * @param now настоящее время
+     */
+    public void markStale(Integer itemId, LocalDateTime now) {
+        jdbcTemplate.update("update item_booking_summary set refresh_at = :now, version = version + 1 " +
+                        "where item_id = :itemId",
+                new MapSqlParameterSource("itemId", itemId).addValue("now", now));
+    }
+
+    /**
+     * Метод помечает устаревшими строки, в которых последнее или следующее бронирование принадлежит пользователю.
+     * Вызывается при удалении пользователя, бронирования которого удаляются каскадно.
+     * @param bookerId идентификатор арендатора
+     * @param now настоящее время
+     */
+    public void markStaleByBooker(Integer bookerId, LocalDateTime now) {
+        jdbcTemplate.update("update item_booking_summary set refresh_at = :now, version = version + 1 " +
+                        "where last_booker_id = :bookerId or next_booker_id = :bookerId",
+                new MapSqlParameterSource("bookerId", bookerId).addValue("now", now));
+    }
+
+    /**
+     * Метод пересчитывает строки вещей по таблице bookings, не записывая их.
+     * @param versions версии прочитанных строк по идентификаторам вещей
+     * @param now настоящее время
+     * @return пересчитанные строки по идентификаторам вещей
+     */
+    public Map<Integer, ItemBookingSummary> compute(Map<Integer, Long> versions, LocalDateTime now) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("itemIds", versions.keySet())
+                .addValue("now", now);
+        Map<Integer, Integer[]> bookings = new HashMap<>();
+        jdbcTemplate.query(LAST_AND_NEXT, parameters, resultSet -> {
+            Integer[] row = bookings.computeIfAbsent(resultSet.getInt(2), itemId -> new Integer[4]);
+            int offset = "LAST".equals(resultSet.getString(4)) ? 0 : 2;
+            row[offset] = resultSet.getInt(1);
+            row[offset + 1] = resultSet.getInt(3);
+        });
+        Map<Integer, LocalDateTime> nextStarts = new HashMap<>();
+        jdbcTemplate.query(NEXT_START, parameters, resultSet -> {
+            nextStarts.put(resultSet.getInt(1), resultSet.getObject(2, LocalDateTime.class));
+        });
+        Map<Integer, ItemBookingSummary> summaries = new HashMap<>();
+        versions.forEach((itemId, version) -> {
+            Integer[] row = bookings.getOrDefault(itemId, new Integer[4]);
+            summaries.put(itemId, new ItemBookingSummary(itemId, row[0], row[1], row[2], row[3],
+                    nextStarts.get(itemId), version));
+        });
+        return summaries;
+    }
+
+    /**
+     * Метод записывает пересчитанную строку, если её версия не изменилась.
+     * @param summary пересчитанная строка
+     * @return true, если строка записана
+     */
+    public boolean update(ItemBookingSummary summary) {
+        return jdbcTemplate.update("update item_booking_summary set last_booking_id = :lastBookingId, " +
+                        "last_booker_id = :lastBookerId, next_booking_id = :nextBookingId, " +
+                        "next_booker_id = :nextBookerId, refresh_at = :refreshAt " +
+                        "where item_id = :itemId and version = :version",
+                new MapSqlParameterSource("itemId", summary.getItemId())
+                        .addValue("lastBookingId", summary.getLastBookingId())
+                        .addValue("lastBookerId", summary.getLastBookerId())
+                        .addValue("nextBookingId", summary.getNextBookingId())
+                        .addValue("nextBookerId", summary.getNextBookerId())
+                        .addValue("refreshAt", summary.getRefreshAt())
+                        .addValue("version", summary.getVersion())) == 1;
+    }
+
+    private static Integer getInteger(ResultSet resultSet, String column) throws SQLException {
+        int value = resultSet.getInt(column);
+        return resultSet.wasNull() ? null : value;
+    }
+}
@@ -6,7 +6,11 @@ import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Интерфейс BookingService содежит сигнатуры метотов, опреледяющих функционал,
@@ -43,15 +47,69 @@ public interface BookingService {
      * Метод позволяет владельцу вещей получить информацию о бронях на них.
      * @param ownerId идентификатор владельца
      * @param state критерий отбора
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
      * @return список вещей, отобранных по критерию {@link State} и преобразованных в {@link BookingResponseDto}
      */
-    public List<BookingResponseDto> findAllBookingForOwner(Integer ownerId, String state);
+    public List<BookingResponseDto> findAllBookingForOwner(Integer ownerId, String state, Integer cursor, Integer size);
+
+    /**
+     * Метод проверяет владельца и критерий отбора и возвращает функцию постраничной выгрузки броней на его вещи.
+     * Страницы выгрузки не проверяются повторно и отбираются относительно одного переданного момента времени.
+     * @param ownerId идентификатор владельца
+     * @param state критерий отбора
+     * @param now момент времени, относительно которого определяется состояние брони
+     * @param size размер страницы
+     * @return функция, возвращающая страницу броней, следующую за переданным курсором, или первую страницу,
+     * если курсор равен null
+     */
+    public Function<Integer, List<BookingResponseDto>> pageAllBookingForOwner(Integer ownerId, String state,
+                                                                              LocalDateTime now, Integer size);
 
     /**
      * Метод позволяет арендатору вещей получить информацию о своих бронях.
      * @param bookerId идентификатор арендатора
      * @param state критерий отбора
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
      * @return список вещей, отобранных по критерию {@link State} и преобразованных в {@link BookingResponseDto}
      */
-    public List<BookingResponseDto> findAllBookingsForBooker(Integer bookerId, String state);
+    public List<BookingResponseDto> findAllBookingsForBooker(Integer bookerId, String state, Integer cursor, Integer size);
+
+    /**
+     * Метод проверяет арендатора и критерий отбора и возвращает функцию постраничной выгрузки его броней.
+     * Страницы выгрузки не проверяются повторно и отбираются относительно одного переданного момента времени.
+     * @param bookerId идентификатор арендатора
+     * @param state критерий отбора
+     * @param now момент времени, относительно которого определяется состояние брони
+     * @param size размер страницы
+     * @return функция, возвращающая страницу броней, следующую за переданным курсором, или первую страницу,
+     * если курсор равен null
+     */
+    public Function<Integer, List<BookingResponseDto>> pageAllBookingsForBooker(Integer bookerId, String state,
+                                                                                LocalDateTime now, Integer size);
+
+    /**
+     * Метод записывает в поток JSON-страницу броней на вещи владельца, минуя создание сущностей и объектов
+     * для передачи данных. Ответ совпадает с сериализацией результата {@link #findAllBookingForOwner}.
+     * @param ownerId идентификатор владельца
+     * @param state критерий отбора
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
+     * @param out поток, в который записывается ответ
+     */
+    public void writeAllBookingForOwner(Integer ownerId, String state, Integer cursor, Integer size,
+                                        OutputStream out) throws IOException;
+
+    /**
+     * Метод записывает в поток JSON-страницу броней арендатора, минуя создание сущностей и объектов
+     * для передачи данных. Ответ совпадает с сериализацией результата {@link #findAllBookingsForBooker}.
+     * @param bookerId идентификатор арендатора
+     * @param state критерий отбора
+     * @param cursor идентификатор последнего бронирования предыдущей страницы
+     * @param size размер страницы
+     * @param out поток, в который записывается ответ
+     */
+    public void writeAllBookingsForBooker(Integer bookerId, String state, Integer cursor, Integer size,
+                                          OutputStream out) throws IOException;
 }
@@ -3,31 +3,42 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Role;
 import ru.practicum.shareit.booking.State;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.db.BookingDbRepository;
+import ru.practicum.shareit.booking.repository.db.BookingViewDbRepository;
+import ru.practicum.shareit.booking.repository.jdbc.BookingJdbcRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.booking.utility.BookingMapper;
-import ru.practicum.shareit.exception.BadArgumentException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.ownership.ItemOwnershipIndex;
 import ru.practicum.shareit.item.repository.db.ItemDbRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.db.UserDbRepository;
+import ru.practicum.shareit.user.repository.cache.UserCache;
+import ru.practicum.shareit.utility.KeysetPage;
+import ru.practicum.shareit.utility.StripedLock;
 
-import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Класс BookingServiceImplementation реализует методы интерфейса {@link BookingService}.
  * Описывает логику работы приложения с сущностью {@link Booking}
- * @see UserDbRepository
+ * @see UserCache
  * @see ItemDbRepository
  * @see BookingDbRepository
  * @see Item
@@ -39,124 +50,176 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Service
 public class BookingServiceImplementation implements BookingService {
+    private static final int LOCK_STRIPES = 64;
 
-    private final UserDbRepository userRepository;
+    private final UserCache userCache;
     private final ItemDbRepository itemRepository;
     private final BookingDbRepository bookingRepository;
-    private Item item;
-    private User user;
+    private final BookingViewDbRepository bookingViewRepository;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final BookingCalendar bookingCalendar;
+    private final ItemOwnershipIndex ownershipIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemBookingSummaryService bookingSummary;
+    private final StripedLock itemLocks = new StripedLock(LOCK_STRIPES);
 
-    @Transactional
+    /**
+     * Метод save сохраняет бронирование. Проверка пересечения периодов и запись выполняются под блокировкой вещи,
+     * которая удерживается до фиксации транзакции, поэтому параллельные запросы на одну вещь не создадут двойную бронь,
+     * а запросы на разные вещи выполняются независимо.
+     */
     @Override
     public BookingResponseDto save(BookingRequestDto booking) {
-        checkBooking(booking);
-        log.info("Сервис: обработка запроска на сохранение бронирования {}", booking.toString());
-        return BookingMapper.bookingToResponseDto(
-                bookingRepository.save(BookingMapper.requestDtoToBooking(booking, item, user))
-        );
+        Booking savedBooking = itemLocks.callWith(checkItemId(booking.getItemId()), () -> {
+            Booking created = transactionTemplate.execute(status -> create(booking));
+            bookingCalendar.register(created);
+            return created;
+        });
+        return BookingMapper.bookingToResponseDto(savedBooking);
     }
 
-    @Transactional
+    /**
+     * Метод update изменяет статус бронирования под блокировкой вещи, к которой относится бронирование.
+     */
     @Override
     public BookingResponseDto update(Integer bookingId, Integer bookerId, Status status) {
-        Booking booking = checkBookingById(bookingId);
-        checkBooking(BookingMapper.bookingToRequestDto(booking));
-        if (!Objects.equals(booking.getItem().getOwnerId(), bookerId)) {
+        Integer itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(
+                () -> new NotFoundException("Бронирование c id " + bookingId + " не найдено в системе")
+        );
+        if (!ownershipIndex.isOwner(itemId, bookerId)) {
             throw new NotFoundException("Пользователю с id " + bookerId + " отказано в редактировании брони. " +
                     "Причина: \"не является владельцем вещи\"");
         }
+        Booking savedBooking = itemLocks.callWith(itemId, () -> {
+            Booking changed = transactionTemplate.execute(transaction -> changeStatus(bookingId, bookerId, status));
+            bookingCalendar.register(changed);
+            return changed;
+        });
+        return BookingMapper.bookingToResponseDto(savedBooking);
+    }
+
+    private Booking create(BookingRequestDto booking) {
+        Item item = checkItem(booking);
+        User user = checkUser(booking);
+        checkBooking(booking, item);
+        checkPeriodIsFree(booking.getItemId(), booking.getStart(), booking.getEnd());
+        log.info("Сервис: обработка запроска на сохранение бронирования {}", booking.toString());
+        Booking savedBooking = bookingRepository.save(BookingMapper.requestDtoToBooking(booking, item, user));
+        bookingViewRepository.save(BookingMapper.bookingToView(savedBooking));
+        bookingSummary.invalidate(item.getId());
+        return savedBooking;
+    }
+
+    private Booking changeStatus(Integer bookingId, Integer bookerId, Status status) {
+        Booking booking = checkBookingById(bookingId);
+        checkBooking(BookingMapper.bookingToRequestDto(booking), booking.getItem());
         if (booking.getStatus().equals(status)) {
             throw new ValidationException("Для бронирования с id " + bookingId + " уже установлен статус " + status);
         }
+        if (!isActive(booking.getStatus()) && isActive(status)) {
+            checkPeriodIsFree(booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        }
         booking.setStatus(status);
         log.info("Сервис: обработка запроска на изменение бронирования {} пользователем с id {}", booking.toString(), bookerId);
-        return BookingMapper.bookingToResponseDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        bookingViewRepository.updateStatus(bookingId, status);
+        bookingSummary.invalidate(booking.getItem().getId());
+        return savedBooking;
+    }
+
+    private void checkPeriodIsFree(Integer itemId, LocalDateTime start, LocalDateTime end) {
+        if (!bookingCalendar.isFree(itemId, start, end)) {
+            throw new ValidationException("Вещь с id " + itemId + " уже забронирована на период с " +
+                    start + " по " + end);
+        }
+    }
+
+    private static boolean isActive(Status status) {
+        return status == Status.WAITING || status == Status.APPROVED;
+    }
+
+    private Integer checkItemId(Integer itemId) {
+        if (itemId == null) {
+            throw new NotFoundException("Вещь не указана в запросе на бронирование");
+        }
+        return itemId;
     }
 
     @Override
     public BookingResponseDto findBookingById(Integer bookingId, Integer bookerId) {
-        Booking booking = checkBookingById(bookingId);
-        if (!((Objects.equals(booking.getItem().getOwnerId(), bookerId)) || (Objects.equals(booking.getBooker().getId(), bookerId))))
+        BookingRow booking = bookingViewRepository.findRowById(bookingId).orElseThrow(
+                () -> new NotFoundException("Бронирование c id " + bookingId + " не найдено в системе")
+        );
+        if (!(ownershipIndex.isOwner(booking.getItemId(), bookerId) || Objects.equals(booking.getBookerId(), bookerId)))
             throw new NotFoundException("Пользователь с id " + bookerId + " не может выполнять просмотр бронироввания с id " +
                     bookingId);
         log.info("Сервис: обработка запроска на получение бронирования по id {} пользователем с id {}", bookingId, bookerId);
-        return BookingMapper.bookingToResponseDto(booking);
+        return BookingMapper.rowToResponseDto(booking);
     }
 
     @Override
-    public List<BookingResponseDto> findAllBookingForOwner(Integer ownerId, String state) {
+    public List<BookingResponseDto> findAllBookingForOwner(Integer ownerId, String state, Integer cursor, Integer size) {
         checkUserById(ownerId);
         State bookingState = checkState(state);
+        KeysetPage.check(cursor, size);
         log.info("Сервис: обработка запроска на получение владельцем с id {} всех броней с состоянием {}", ownerId, state);
-        switch (bookingState) {
-            case ALL:
-                return bookingRepository.findAllByItemOwnerIdOrderByIdDesc(ownerId).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByItemOwnerIdAndStartIsBeforeAndEndIsAfterOrderByIdDesc(
-                        ownerId, LocalDateTime.now(), LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByItemOwnerIdAndStatusAndEndIsBeforeOrderByIdDesc(
-                        ownerId, Status.APPROVED, LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByItemOwnerIdAndStatusInAndStartIsAfterOrderByIdDesc(
-                        ownerId, List.of(Status.APPROVED, Status.WAITING), LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByIdDesc(ownerId, Status.WAITING).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByIdDesc(ownerId, Status.REJECTED).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new BadArgumentException("Unknown state: " + state);
-        }
+        return findAllByRole(Role.OWNER, ownerId, bookingState, LocalDateTime.now(), cursor, size);
     }
 
     @Override
-    public List<BookingResponseDto> findAllBookingsForBooker(Integer bookerId, String state) {
+    public Function<Integer, List<BookingResponseDto>> pageAllBookingForOwner(Integer ownerId, String state,
+                                                                              LocalDateTime now, Integer size) {
+        checkUserById(ownerId);
+        State bookingState = checkState(state);
+        KeysetPage.check(null, size);
+        log.info("Сервис: постраничная выгрузка владельцу с id {} всех броней с состоянием {}", ownerId, state);
+        return cursor -> findAllByRole(Role.OWNER, ownerId, bookingState, now, cursor, size);
+    }
+
+    @Override
+    public List<BookingResponseDto> findAllBookingsForBooker(Integer bookerId, String state, Integer cursor, Integer size) {
         checkUserById(bookerId);
         State bookingState = checkState(state);
+        KeysetPage.check(cursor, size);
         log.info("Сервис: обработка запроска на получение пользователем с id {} всех броней с состоянием {}", bookerId, state);
-        switch (bookingState) {
-            case ALL:
-                return bookingRepository.findAllByBookerIdOrderByIdDesc(bookerId).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case CURRENT:
-                return bookingRepository.findAllByBookerIdAndStartIsBeforeAndEndIsAfterOrderByIdAsc(bookerId,
-                        LocalDateTime.now(), LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case PAST:
-                return bookingRepository.findAllByBookerIdAndStatusAndEndIsBeforeOrderByIdDesc(bookerId,
-                        Status.APPROVED, LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case FUTURE:
-                return bookingRepository.findAllByBookerIdAndStatusInAndStartIsAfterOrderByIdDesc(bookerId,
-                        List.of(Status.APPROVED, Status.WAITING), LocalDateTime.now()).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case WAITING:
-                return bookingRepository.findAllByBookerIdAndStatusOrderByIdDesc(bookerId, Status.WAITING).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            case REJECTED:
-                return bookingRepository.findAllByBookerIdAndStatusOrderByIdDesc(bookerId, Status.REJECTED).stream()
-                        .map(BookingMapper::bookingToResponseDto)
-                        .collect(Collectors.toList());
-            default:
-                throw new BadArgumentException("Unknown state: " + state);
-        }
+        return findAllByRole(Role.BOOKER, bookerId, bookingState, LocalDateTime.now(), cursor, size);
+    }
+
+    @Override
+    public Function<Integer, List<BookingResponseDto>> pageAllBookingsForBooker(Integer bookerId, String state,
+                                                                                LocalDateTime now, Integer size) {
+        checkUserById(bookerId);
+        State bookingState = checkState(state);
+        KeysetPage.check(null, size);
+        log.info("Сервис: постраничная выгрузка пользователю с id {} всех броней с состоянием {}", bookerId, state);
+        return cursor -> findAllByRole(Role.BOOKER, bookerId, bookingState, now, cursor, size);
+    }
+
+    private List<BookingResponseDto> findAllByRole(Role role, Integer userId, State state, LocalDateTime now,
+                                                   Integer cursor, Integer size) {
+        return bookingViewRepository.findAllByRole(role, userId, state, now, cursor, size).stream()
+                .map(BookingMapper::rowToResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void writeAllBookingForOwner(Integer ownerId, String state, Integer cursor, Integer size,
+                                        OutputStream out) throws IOException {
+        checkUserById(ownerId);
+        State bookingState = checkState(state);
+        KeysetPage.check(cursor, size);
+        log.info("Сервис: запись в поток всех броней владельца с id {} с состоянием {}", ownerId, state);
+        bookingJdbcRepository.writeAllByRole(Role.OWNER, ownerId, bookingState, LocalDateTime.now(), cursor, size, out);
+    }
+
+    @Override
+    public void writeAllBookingsForBooker(Integer bookerId, String state, Integer cursor, Integer size,
+                                          OutputStream out) throws IOException {
+        checkUserById(bookerId);
+        State bookingState = checkState(state);
+        KeysetPage.check(cursor, size);
+        log.info("Сервис: запись в поток всех броней пользователя с id {} с состоянием {}", bookerId, state);
+        bookingJdbcRepository.writeAllByRole(Role.BOOKER, bookerId, bookingState, LocalDateTime.now(), cursor, size, out);
     }
 
     private Item checkItem(BookingRequestDto booking) {
@@ -168,14 +231,14 @@ public class BookingServiceImplementation implements BookingService {
 
     private User checkUser(BookingRequestDto booking) {
         log.info("Сервис: поиск пользователя в системе");
-        return userRepository.findById(booking.getUserId()).orElseThrow(
+        return userCache.findById(booking.getUserId()).orElseThrow(
                         () -> new NotFoundException("Пользователь c id " + booking.getUserId() + " не зарегистрирован в системе")
                 );
     }
 
     private void checkUserById(Integer userId) {
         log.info("Сервис: поиск пользователя с id {} в системе", userId);
-        userRepository.findById(userId).orElseThrow(
+        userCache.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь c id " + userId + " не зарегистрирован в системе")
         );
     }
@@ -187,9 +250,7 @@ public class BookingServiceImplementation implements BookingService {
         );
     }
 
-    private void checkBooking(BookingRequestDto booking) {
-        item = checkItem(booking);
-        user = checkUser(booking);
+    private void checkBooking(BookingRequestDto booking, Item item) {
         log.info("Сервис: поиск бронирования в системе");
         if (booking.getStart() == null || booking.getEnd() == null)
             throw new ValidationException("Ошибка в данных даты начала или даты окончания бронирования");
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.dto.BookingReference;
+
+import java.time.LocalDateTime;
+
+/**
+ * Класс ItemBookingSummary - строка таблицы item_booking_summary с последним и следующим бронированием вещи.
+ * Содержит поля:
+ * <ul>
+ *     <li>itemId - идентификатор вещи, тип {@link Integer};</li>
+ *     <li>lastBookingId, lastBookerId - последнее бронирование и его арендатор, тип {@link Integer};</li>
+ *     <li>nextBookingId, nextBookerId - следующее бронирование и его арендатор, тип {@link Integer};</li>
+ *     <li>refreshAt - момент, начиная с которого строка устарела, тип {@link LocalDateTime};
+ *     null, если строка не устареет без изменения бронирований;</li>
+ *     <li>version - номер версии, увеличивается при каждом изменении бронирований вещи, тип {@code long}.</li>
+ * </ul>
+ */
+@Value
+public class ItemBookingSummary {
+    Integer itemId;
+    Integer lastBookingId;
+    Integer lastBookerId;
+    Integer nextBookingId;
+    Integer nextBookerId;
+    LocalDateTime refreshAt;
+    long version;
+
+    public boolean isStale(LocalDateTime now) {
+        return refreshAt != null && !refreshAt.isAfter(now);
+    }
+
+    public BookingReference getLastBooking() {
+        return lastBookingId == null ? null : new BookingReference(lastBookingId, lastBookerId);
+    }
+
+    public BookingReference getNextBooking() {
+        return nextBookingId == null ? null : new BookingReference(nextBookingId, nextBookerId);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.repository.jdbc.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Класс ItemBookingSummaryService предоставляет последнее и следующее бронирование вещей
+ * из таблицы item_booking_summary вместо пересчёта по истории бронирований при каждом чтении.</p>
+ * <p>Строка устаревает, когда изменяются бронирования вещи или когда наступает начало ближайшего бронирования.
+ * Устаревшие строки пересчитываются при чтении, а также периодически в фоне с интервалом
+ * shareit.booking-summary.sweep-delay миллисекунд, чтобы чтение обычно не выполняло пересчёт.</p>
+ */
+@Slf4j
+@Service
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository repository;
+    private final int sweepBatchSize;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository repository,
+                                     @Value("${shareit.booking-summary.sweep-batch-size:500}") int sweepBatchSize) {
+        this.repository = repository;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    /**
+     * Метод возвращает актуальные строки для указанных вещей, пересчитывая устаревшие.
+     * @param itemIds идентификаторы вещей
+     * @return строки по идентификаторам вещей; для незарегистрированных вещей строки отсутствуют
+     */
+    public Map<Integer, ItemBookingSummary> findAll(Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, ItemBookingSummary> summaries = load(itemIds);
+        if (summaries.size() < itemIds.size()) {
+            repository.createMissing(itemIds, now);
+            summaries = load(itemIds);
+        }
+        List<ItemBookingSummary> stale = stale(summaries.values(), now);
+        if (!stale.isEmpty()) {
+            Map<Integer, ItemBookingSummary> computed = compute(stale, now);
+            write(computed.values());
+            summaries.putAll(computed);
+        }
+        return summaries;
+    }
+
+    /**
+     * Метод создаёт строку для новой вещи. Вызывается в транзакции сохранения вещи.
+     * @param itemId идентификатор вещи
+     */
+    public void register(Integer itemId) {
+        repository.create(itemId);
+    }
+
+    /**
+     * Метод помечает строку вещи устаревшей. Вызывается в транзакции, изменяющей бронирования вещи.
+     * @param itemId идентификатор вещи
+     */
+    public void invalidate(Integer itemId) {
+        repository.markStale(itemId, LocalDateTime.now());
+    }
+
+    /**
+     * Метод помечает устаревшими строки, ссылающиеся на бронирования удаляемого пользователя.
+     * Выполняется в транзакции удаления, пока бронирования пользователя ещё не удалены каскадно.
+     * @param event событие удаления пользователя
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        repository.markStaleByBooker(event.getUserId(), LocalDateTime.now());
+    }
+
+    /**
+     * Метод пересчитывает устаревшие строки порциями по shareit.booking-summary.sweep-batch-size вещей.
+     */
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-delay:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        List<Integer> itemIds;
+        do {
+            itemIds = repository.findStaleItemIds(now, sweepBatchSize);
+            if (itemIds.isEmpty()) {
+                break;
+            }
+            int written = write(compute(stale(load(itemIds).values(), now), now).values());
+            total += written;
+            if (written == 0) {
+                break;
+            }
+        } while (itemIds.size() == sweepBatchSize);
+        if (total > 0) {
+            log.info("Сводка бронирований: пересчитано строк {}", total);
+        }
+    }
+
+    private Map<Integer, ItemBookingSummary> load(Collection<Integer> itemIds) {
+        return repository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity(),
+                        (first, second) -> first, HashMap::new));
+    }
+
+    private static List<ItemBookingSummary> stale(Collection<ItemBookingSummary> summaries, LocalDateTime now) {
+        return summaries.stream()
+                .filter(summary -> summary.isStale(now))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Integer, ItemBookingSummary> compute(List<ItemBookingSummary> stale, LocalDateTime now) {
+        if (stale.isEmpty()) {
+            return Map.of();
+        }
+        return repository.compute(stale.stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, ItemBookingSummary::getVersion)), now);
+    }
+
+    private int write(Collection<ItemBookingSummary> summaries) {
+        int written = 0;
+        for (ItemBookingSummary summary : summaries) {
+            if (repository.update(summary)) {
+                written++;
+            } else {
+                log.debug("Сводка бронирований: вещь с id {} изменилась во время пересчёта", summary.getItemId());
+            }
+        }
+        return written;
+    }
+}
@@ -3,7 +3,9 @@ package ru.practicum.shareit.booking.utility;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingRow;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -48,6 +50,55 @@ public class BookingMapper {
                 .build();
     }
 
+    /**
+     * Статичный метод rowToResponseDto конвертирует проекцию бронирования в объект класса BookingResponseDto.
+     * Вещь и арендатор создаются как обычные объекты и не связаны с контекстом персистентности.
+     * @param row проекция, содержащая данные об аренде, вещи и арендаторе
+     * @return объект класса {@link BookingResponseDto}, полученный в результате преобразования {@link BookingRow}
+     */
+    public static BookingResponseDto rowToResponseDto(BookingRow row) {
+        return BookingResponseDto.builder()
+                .id(row.getId())
+                .item(Item.builder()
+                        .id(row.getItemId())
+                        .name(row.getItemName())
+                        .description(row.getItemDescription())
+                        .ownerId(row.getItemOwnerId())
+                        .available(row.getItemAvailable())
+                        .build())
+                .booker(User.builder()
+                        .id(row.getBookerId())
+                        .name(row.getBookerName())
+                        .email(row.getBookerEmail())
+                        .build())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .status(row.getStatus())
+                .build();
+    }
+
+    /**
+     * Статичный метод bookingToView конвертирует объект класса Booking в строку денормализованной таблицы
+     * @param booking объект, содержащий данные об аренде, вещи и арендаторе
+     * @return объект класса {@link BookingView}, полученный в результате преобразования {@link Booking}
+     */
+    public static BookingView bookingToView(Booking booking) {
+        return BookingView.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .itemId(booking.getItem().getId())
+                .itemName(booking.getItem().getName())
+                .itemDescription(booking.getItem().getDescription())
+                .itemAvailable(booking.getItem().getAvailable())
+                .ownerId(booking.getItem().getOwnerId())
+                .bookerId(booking.getBooker().getId())
+                .bookerName(booking.getBooker().getName())
+                .bookerEmail(booking.getBooker().getEmail())
+                .build();
+    }
+
     /**
      * Статичный метод dtoToBooking конвертирует объект класса BookingDto в объект класса Booking
      * @param bookingRequestDto dto объект, содержащий данные об аренде
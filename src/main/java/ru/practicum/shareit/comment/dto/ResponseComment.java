@@ -18,7 +18,7 @@ import java.time.LocalDateTime;
  * </ul>
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @RequiredArgsConstructor
 @AllArgsConstructor
 public class ResponseComment {
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.comment.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -25,6 +27,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Entity
 @Table(name = "comments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "comments")
 public class Comment {
     @Id
     @Column(name = "comment_id")
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.comment.repository.db;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.comment.model.Comment;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 /**
@@ -12,9 +15,12 @@ import java.util.List;
 public interface CommentDbRepository extends JpaRepository<Comment, Integer> {
 
     /**
-     * Метод позволяет найти все комментарии, которые оставили для конкретной вещи
+     * Метод позволяет найти все комментарии, которые оставили для конкретной вещи.
+     * Автор комментария загружается в том же запросе. Результат запроса кэшируется.
      * @param itemId - идентификатор вещи
      * @return список оставленных для вещи комментариев, преобразованных в {@link Comment}
      */
+    @EntityGraph(attributePaths = "author")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Comment> findAllByItemIdOrderById(Integer itemId);
 }
@@ -1,15 +1,24 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.comment.dto.RequestComment;
 import ru.practicum.shareit.comment.dto.ResponseComment;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.utility.KeysetPage;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -24,30 +33,46 @@ import java.util.List;
 @RequestMapping("/items")
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
+    @Value("#{'${shareit.read-path:jpa}' == 'jdbc'}")
+    private boolean jdbcReadPath;
 
     /**
      * Метод findAll обрабатывает GET-метод запроса к эндпоинту /items,
-     * обращается к методу {@link ItemService#findAll(Integer)}.
+     * обращается к методу {@link ItemService#findAll(Integer, Integer, Integer)}.
      * @param userId идентификатор владельца вещей
-     * @return список всех вещей пользователя, преобразованных в {@link ItemDto}.
+     * @param cursor необязательный параметр, идентификатор последней вещи предыдущей страницы
+     * @param size необязательный параметр, размер страницы (по умолчанию {@value KeysetPage#DEFAULT_SIZE})
+     * @return страница вещей пользователя, преобразованных в {@link ItemDto}.
      */
     @GetMapping
-    public List<ItemDto> findAll(@RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public List<ItemDto> findAll(@RequestHeader("X-Sharer-User-Id") Integer userId,
+                                 @RequestParam(required = false) Integer cursor,
+                                 @RequestParam(defaultValue = KeysetPage.DEFAULT_SIZE) Integer size) {
         log.info("Контроллер: GET-запрос по эндпоинту /items от пользователя с id {}", userId);
-        return itemService.findAll(userId);
+        return itemService.findAll(userId, cursor, size);
     }
 
     /**
      * Метод findById обрабатывает GET-метод запроса к эндпоинту /items/id,
      * обращается к методу {@link ItemService#findById(Integer, Integer)}.
      * @param itemId идентификатор вещи;
-     * @param userId идентификатор пользователя.
-     * @return объект класса {@link Item}, преобразованный в {@link ItemDto}.
+     * @param userId идентификатор пользователя;
+     * @return объект класса {@link Item}, преобразованный в {@link ItemDto}; при включённом пути чтения JDBC
+     * вещь записывается в ответ напрямую.
      */
     @GetMapping("/{id}")
-    public ItemDto findById(@PathVariable("id") Integer itemId, @RequestHeader("X-Sharer-User-Id") Integer userId) {
+    public ResponseEntity<StreamingResponseBody> findById(@PathVariable("id") Integer itemId,
+                                                          @RequestHeader("X-Sharer-User-Id") Integer userId) {
         log.info("Контроллер: GET-запрос по эндпоинту /items/{}", itemId);
-        return itemService.findById(itemId, userId);
+        StreamingResponseBody body;
+        if (jdbcReadPath) {
+            body = out -> itemService.writeById(itemId, userId, out);
+        } else {
+            ItemDto item = itemService.findById(itemId, userId);
+            body = out -> out.write(objectMapper.writeValueAsBytes(item));
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
@@ -100,17 +125,37 @@ public class ItemController {
 
     /**
      * Метод findItems обрабатывает GET-метод запроса к эндпоинту /items/search,
-     * обращается к методу {@link ItemService#seekItem(String)}.
+     * обращается к методу {@link ItemService#seekItem(String, Integer, Integer)}.
      * @param text поисковый запрос.
-     * @return список найденных вещей, которые можно арендовать.
+     * @param cursor необязательный параметр, идентификатор последней вещи предыдущей страницы
+     * @param size необязательный параметр, размер страницы (по умолчанию {@value KeysetPage#DEFAULT_SIZE})
+     * @return страница найденных вещей, которые можно арендовать.
      */
     @GetMapping("/search")
-    public List<ItemDto> findItems(@RequestParam String text) {
+    public List<ItemDto> findItems(@RequestParam String text,
+                                   @RequestParam(required = false) Integer cursor,
+                                   @RequestParam(defaultValue = KeysetPage.DEFAULT_SIZE) Integer size) {
         log.info("Контроллер: GET-запрос по эндпоинту /items/search со строкой {}", text);
         if (text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemService.seekItem(text);
+        return itemService.seekItem(text, cursor, size);
+    }
+
+    /**
+     * Метод findFreeSlots обрабатывает GET-метод запроса к эндпоинту /items/id/availability,
+     * обращается к методу {@link ItemService#findFreeSlots(Integer, LocalDateTime, LocalDateTime)}.
+     * @param itemId идентификатор вещи
+     * @param from дата и время начала периода
+     * @param to дата и время окончания периода
+     * @return список промежутков периода, в которые вещь свободна, преобразованных в {@link FreeSlot}
+     */
+    @GetMapping("/{id}/availability")
+    public List<FreeSlot> findFreeSlots(@PathVariable("id") Integer itemId,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Контроллер: GET-запрос по эндпоинту /items/{}/availability с {} по {}", itemId, from, to);
+        return itemService.findFreeSlots(itemId, from, to);
     }
 
     /**
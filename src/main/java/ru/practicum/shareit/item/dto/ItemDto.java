@@ -24,7 +24,7 @@ import java.util.List;
  */
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @RequiredArgsConstructor
 @AllArgsConstructor
 public class ItemDto {
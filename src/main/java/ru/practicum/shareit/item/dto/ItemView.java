@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемая проекция вещи для чтения. Содержит только столбцы, которые попадают в {@link ItemDto},
+ * и не регистрируется в контексте персистентности.
+ */
+@Value
+public class ItemView {
+    Integer id;
+    Integer ownerId;
+    String name;
+    String description;
+    Boolean available;
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -23,6 +25,8 @@ import javax.persistence.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 public class Item {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.ownership;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.utility.IntIntOpenHashMap;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * <p>Класс ItemOwnershipIndex - индекс владельцев вещей в памяти приложения для проверки прав доступа
+ * без обращения к базе данных.</p>
+ * <p>Соответствие идентификатора вещи идентификатору владельца хранится в {@link IntIntOpenHashMap}.
+ * Индекс заполняется при запуске приложения и обновляется после фиксации транзакций, сохранивших или удаливших
+ * вещи, поэтому откат транзакции не оставляет в нём записей.
+ * Чтение выполняется под оптимистичной блокировкой {@link StampedLock} и не создаёт объектов.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemOwnershipIndex {
+    /**
+     * Значение, которое возвращается для незарегистрированной вещи.
+     */
+    public static final int NO_OWNER = 0;
+    private static final int INITIAL_SIZE = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IntIntOpenHashMap owners = new IntIntOpenHashMap(INITIAL_SIZE);
+    private final StampedLock lock = new StampedLock();
+
+    @PostConstruct
+    public void load() {
+        long stamp = lock.writeLock();
+        try {
+            owners.clear();
+            jdbcTemplate.query("select item_id, owner_id from items",
+                    resultSet -> {
+                        owners.put(resultSet.getInt(1), resultSet.getInt(2));
+                    });
+            log.info("Индекс владельцев: загружено вещей {}", owners.size());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Метод возвращает идентификатор владельца вещи.
+     * @param itemId идентификатор вещи
+     * @return идентификатор владельца или {@link #NO_OWNER}, если вещь не зарегистрирована
+     */
+    public int ownerOf(int itemId) {
+        long stamp = lock.tryOptimisticRead();
+        int owner = readOwner(itemId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                owner = owners.get(itemId, NO_OWNER);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Метод проверяет, является ли пользователь владельцем вещи.
+     * @param itemId идентификатор вещи
+     * @param userId идентификатор пользователя
+     * @return true, если вещь зарегистрирована и принадлежит пользователю
+     */
+    public boolean isOwner(int itemId, int userId) {
+        int owner = ownerOf(itemId);
+        return owner != NO_OWNER && owner == userId;
+    }
+
+    /**
+     * Метод добавляет вещь в индекс.
+     * @param item объект класса {@link Item}
+     */
+    public void register(Item item) {
+        long stamp = lock.writeLock();
+        try {
+            owners.put(item.getId(), item.getOwnerId());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Метод удаляет вещь из индекса.
+     * @param itemId идентификатор вещи
+     */
+    public void remove(int itemId) {
+        long stamp = lock.writeLock();
+        try {
+            owners.remove(itemId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Метод удаляет из индекса все вещи удалённого пользователя, которые база данных удалила каскадно.
+     * Выполняется после фиксации транзакции удаления.
+     * @param event событие удаления пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            owners.removeValue(event.getUserId());
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private int readOwner(int itemId) {
+        try {
+            return owners.get(itemId, NO_OWNER);
+        } catch (ArrayIndexOutOfBoundsException exception) {
+            // массивы могли быть заменены при расширении таблицы во время оптимистичного чтения
+            return NO_OWNER;
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.item.repository.db;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Интерфейс ItemDbRepository содержит сигнатуры методов для работы с сущностью {@link Item}.
@@ -13,20 +19,54 @@ import java.util.List;
 public interface ItemDbRepository extends JpaRepository<Item, Integer> {
 
     /**
-     * Метод позволяет владельцу найти все вещи по своему id
+     * Метод позволяет владельцу получить страницу своих вещей
      * @param ownerId идентификатор арендодатора
-     * @return список всех вещей владельца, преобразованных в {@link Item}
+     * @param cursor идентификатор, больше которого должны быть идентификаторы вещей страницы
+     * @param page ограничение размера страницы
+     * @return список вещей владельца, преобразованных в {@link ItemView}
+     */
+    @Query(value = "select new ru.practicum.shareit.item.dto.ItemView(" +
+        "it.id, it.ownerId, it.name, it.description, it.available) from Item as it " +
+        "where it.ownerId = ?1 and it.id > ?2 order by it.id")
+    List<ItemView> findViewsByOwnerId(Integer ownerId, Integer cursor, Pageable page);
+
+    /**
+     * Метод позволяет получить все вещи владельца. Используется при удалении пользователя,
+     * вещи которого база данных удаляет каскадно.
+     * @param ownerId идентификатор владельца
+     * @return список вещей владельца
      */
     List<Item> findAllByOwnerId(Integer ownerId);
 
+    /**
+     * Метод позволяет получить вещь по идентификатору. Результат запроса кэшируется.
+     * @param itemId идентификатор вещи
+     * @return вещь, преобразованная в {@link ItemView}
+     */
+    @Query(value = "select new ru.practicum.shareit.item.dto.ItemView(" +
+        "it.id, it.ownerId, it.name, it.description, it.available) from Item as it where it.id = ?1")
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
+    Optional<ItemView> findViewById(Integer itemId);
+
+    /**
+     * Метод позволяет получить вещи по набору идентификаторов
+     * @param itemIds идентификаторы вещей
+     * @return список вещей, преобразованных в {@link ItemView}
+     */
+    @Query(value = "select new ru.practicum.shareit.item.dto.ItemView(" +
+        "it.id, it.ownerId, it.name, it.description, it.available) from Item as it where it.id in ?1")
+    List<ItemView> findViewsByIdIn(Collection<Integer> itemIds);
 
     /**
-     * Метод позволяет найти все вещи, доступные к бронированию, по имени или описанию
+     * Метод позволяет найти страницу вещей, доступных к бронированию, по имени или описанию
      * @param query запрос к базе данных
-     * @return список вещей, доступных к бронированию и преобразованных в {@link Item}
+     * @param cursor идентификатор, больше которого должны быть идентификаторы вещей страницы
+     * @param page ограничение размера страницы
+     * @return список идентификаторов вещей, доступных к бронированию
      */
-    @Query(value = "select it from Item as it " +
+    @Query(value = "select it.id from Item as it " +
         "where (UPPER(it.name) like UPPER(concat('%', ?1, '%')) " +
-        "or UPPER(it.description) like UPPER(concat('%', ?1, '%'))) and it.available = true")
-    List<Item> findByNameOrDescriptionAndAvailable(String query);
+        "or UPPER(it.description) like UPPER(concat('%', ?1, '%'))) and it.available = true " +
+        "and it.id > ?2 order by it.id")
+    List<Integer> findIdsByNameOrDescriptionAndAvailable(String query, Integer cursor, Pageable page);
 }
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.repository.jdbc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingReference;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>Класс ItemJdbcRepository читает вещь и отзывы запросами SQL и записывает строки результата сразу в JSON
+ * потоковым {@link JsonGenerator}. Последнее и следующее бронирования берутся из сводки бронирований,
+ * как и при чтении через JPA.</p>
+ * <p>Структура и порядок полей совпадают с сериализацией {@link ItemDto}, поэтому ответ побайтно
+ * совпадает с ответом через JPA.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class ItemJdbcRepository {
+    private static final String ITEM_QUERY = "select i.item_id, i.owner_id, i.name, i.description, i.available " +
+            "from items as i where i.item_id = :itemId";
+    private static final String COMMENTS_QUERY = "select c.comment_id, c.content, u.name, c.creation_date " +
+            "from comments as c join users as u on u.user_id = c.user_id " +
+            "where c.item_id = :itemId order by c.comment_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Метод записывает в поток вещь вместе с отзывами и переданными последним и следующим бронированиями.
+     * @param itemId идентификатор вещи
+     * @param bookings строка сводки бронирований вещи или null, если бронирования не записываются
+     * @param out поток, в который записывается ответ
+     * @return false, если вещь не найдена; в этом случае в поток ничего не записывается
+     */
+    public boolean writeById(Integer itemId, ItemBookingSummary bookings, OutputStream out) throws IOException {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("itemId", itemId);
+        Object[] item = DataAccessUtils.singleResult(jdbcTemplate.query(ITEM_QUERY, parameters,
+                (resultSet, rowNum) -> new Object[]{resultSet.getInt("item_id"), resultSet.getInt("owner_id"),
+                        resultSet.getString("name"), resultSet.getString("description"), resultSet.getBoolean("available")}));
+        if (item == null) {
+            return false;
+        }
+
+        try (JsonGenerator generator = objectMapper.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartObject();
+            generator.writeNumberField("id", (Integer) item[0]);
+            generator.writeNumberField("ownerId", (Integer) item[1]);
+            generator.writeStringField("name", (String) item[2]);
+            generator.writeStringField("description", (String) item[3]);
+            generator.writeBooleanField("available", (Boolean) item[4]);
+            writeBooking(generator, "lastBooking", bookings == null ? null : bookings.getLastBooking());
+            writeBooking(generator, "nextBooking", bookings == null ? null : bookings.getNextBooking());
+            generator.writeArrayFieldStart("comments");
+            jdbcTemplate.query(COMMENTS_QUERY, parameters, resultSet -> {
+                write(() -> {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", resultSet.getInt("comment_id"));
+                    generator.writeStringField("text", resultSet.getString("content"));
+                    generator.writeStringField("authorName", resultSet.getString("name"));
+                    generator.writeFieldName("created");
+                    generator.writeObject(resultSet.getObject("creation_date", LocalDateTime.class));
+                    generator.writeEndObject();
+                });
+            });
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return true;
+    }
+
+    private static void writeBooking(JsonGenerator generator, String field, BookingReference booking)
+            throws IOException {
+        if (booking == null) {
+            generator.writeNullField(field);
+            return;
+        }
+        generator.writeObjectFieldStart(field);
+        generator.writeNumberField("id", booking.getId());
+        generator.writeNumberField("bookerId", booking.getBookerId());
+        generator.writeEndObject();
+    }
+
+    private static void write(JsonWriter writer) throws SQLException {
+        try {
+            writer.write();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write() throws IOException, SQLException;
+    }
+}
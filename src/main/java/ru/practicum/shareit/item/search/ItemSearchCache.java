@@ -0,0 +1,134 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.utility.AfterCommit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Класс ItemSearchCache - ограниченный по размеру и времени жизни кэш страниц идентификаторов вещей, найденных
+ * {@link ItemSearchEngine}. Ключом служит запрос в верхнем регистре вместе с курсором и размером страницы.</p>
+ * <p>При изменении названия, описания или доступности вещи удаляются только страницы запросов,
+ * которым соответствует прежнее или новое состояние вещи. Доля попаданий публикуется в метрике
+ * shareit.search.cache.hit.ratio, счётчики попаданий и промахов - в cache.gets с тегом cache=item-search.
+ * Кэш отключается свойством shareit.search.cache.enabled=false.</p>
+ */
+@Component
+public class ItemSearchCache {
+    private final ItemSearchEngine searchEngine;
+    private final boolean enabled;
+    private final Cache<Key, List<Integer>> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchEngine searchEngine, MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.enabled:true}") boolean enabled,
+                           @Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.search.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.searchEngine = searchEngine;
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "item-search");
+        Gauge.builder("shareit.search.cache.hit.ratio", cache, value -> value.stats().hitRate())
+                .description("Доля поисковых запросов, обслуженных из кэша")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Метод возвращает страницу идентификаторов найденных вещей из кэша или из поискового механизма.
+     * @param query поисковый запрос
+     * @param afterId идентификатор, больше которого должны быть идентификаторы найденных вещей
+     * @param limit максимальное количество найденных вещей
+     * @return список идентификаторов найденных вещей
+     */
+    public List<Integer> findIds(String query, int afterId, int limit) {
+        if (!enabled) {
+            return searchEngine.findIds(query, afterId, limit);
+        }
+        Key key = new Key(query.toUpperCase(Locale.ROOT), afterId, limit);
+        List<Integer> ids = cache.getIfPresent(key);
+        if (ids != null) {
+            return ids;
+        }
+        long loadedAt = generation.get();
+        ids = List.copyOf(searchEngine.findIds(query, afterId, limit));
+        cache.put(key, ids);
+        if (generation.get() != loadedAt) {
+            // вещи изменились во время поиска, и результат мог устареть
+            cache.invalidate(key);
+        }
+        return ids;
+    }
+
+    /**
+     * Метод удаляет страницы запросов, на результаты которых могло повлиять изменение вещи.
+     * Если название, описание и доступность не изменились, кэш не очищается. Внутри транзакции удаление
+     * повторяется после её фиксации, чтобы параллельный запрос не вернул в кэш результат поиска,
+     * выполненного до фиксации изменений и обновления поискового индекса.
+     * @param before состояние вещи до изменения или null для новой вещи
+     * @param after состояние вещи после изменения или null для удалённой вещи
+     */
+    public void invalidate(Item before, Item after) {
+        if (!enabled || !changesSearch(before, after)) {
+            return;
+        }
+        evict(before, after);
+        AfterCommit.run(() -> evict(before, after));
+    }
+
+    /**
+     * Метод удаляет страницы запросов, которым соответствовали вещи удалённого пользователя.
+     * Выполняется после фиксации транзакции удаления, когда поисковый механизм уже не находит эти вещи.
+     * @param event событие удаления пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        if (enabled) {
+            event.getOwnedItems().forEach(item -> evict(item, null));
+        }
+    }
+
+    private void evict(Item before, Item after) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> affects(key.query, before) || affects(key.query, after));
+    }
+
+    private boolean affects(String query, Item item) {
+        return item != null && Boolean.TRUE.equals(item.getAvailable()) && searchEngine.mayMatch(query, item);
+    }
+
+    private static boolean changesSearch(Item before, Item after) {
+        if (before == null || after == null) {
+            return true;
+        }
+        return !Objects.equals(before.getName(), after.getName())
+                || !Objects.equals(before.getDescription(), after.getDescription())
+                || !Objects.equals(before.getAvailable(), after.getAvailable());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Key {
+        private final String query;
+        private final int afterId;
+        private final int limit;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>Интерфейс ItemSearchEngine содержит сигнатуры методов поиска вещей, доступных к бронированию,
+ * по названию или описанию.</p>
+ * <p>Реализация выбирается свойством <strong>shareit.search.engine</strong>:</p>
+ * <ul>
+ *     <li>index - инвертированный индекс по триграммам в оперативной памяти (по умолчанию);</li>
+ *     <li>postgres - полнотекстовый и триграммный поиск средствами PostgreSQL;</li>
+ *     <li>jpql - переносимый запрос с оператором LIKE.</li>
+ * </ul>
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Метод findIds возвращает страницу идентификаторов вещей, найденных по запросу.
+     * Порядок выдачи определяется реализацией: по возрастанию идентификатора либо по релевантности.
+     * Страница содержит вещи, следующие в этом порядке за вещью-курсором.
+     * @param query поисковый запрос
+     * @param afterId идентификатор последней вещи предыдущей страницы или 0 для первой страницы
+     * @param limit максимальное количество найденных вещей
+     * @return список идентификаторов найденных вещей
+     */
+    List<Integer> findIds(String query, int afterId, int limit);
+
+    /**
+     * Метод index сообщает поисковому механизму о сохранении или изменении вещи.
+     * @param item объект класса {@link Item}
+     */
+    default void index(Item item) {
+    }
+
+    /**
+     * Метод remove сообщает поисковому механизму об удалении вещи.
+     * @param itemId идентификатор вещи
+     */
+    default void remove(Integer itemId) {
+    }
+
+    /**
+     * Метод mayMatch сообщает, может ли вещь попасть в результаты поиска по запросу.
+     * Используется для точечной очистки кэша результатов поиска. Реализация по умолчанию
+     * проверяет вхождение запроса в название или описание без учёта регистра.
+     * @param query поисковый запрос в верхнем регистре
+     * @param item объект класса {@link Item}
+     * @return false, только если вещь гарантированно не соответствует запросу
+     */
+    default boolean mayMatch(String query, Item item) {
+        return (item.getName() != null && item.getName().toUpperCase(Locale.ROOT).contains(query))
+                || (item.getDescription() != null && item.getDescription().toUpperCase(Locale.ROOT).contains(query));
+    }
+}
@@ -0,0 +1,250 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.db.ItemDbRepository;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * <p>Класс ItemTrigramIndex реализует методы интерфейса {@link ItemSearchEngine}
+ * с помощью инвертированного индекса по триграммам названий и описаний вещей,
+ * доступных к бронированию. Индекс хранится в оперативной памяти, заполняется при запуске приложения
+ * и обновляется после фиксации каждой транзакции, изменившей вещь.</p>
+ * <p>Поиск выполняется без учёта регистра по вхождению подстроки в название или описание вещи,
+ * как и запрос {@link ItemDbRepository#findIdsByNameOrDescriptionAndAvailable}.
+ * Триграммы запроса сужают круг вещей-кандидатов, а каждый кандидат затем проверяется на точное вхождение подстроки.</p>
+ * <p>Для запросов из одного и двух символов индекс хранит также списки вещей по отдельным символам и парам символов,
+ * поэтому короткий запрос отвечается одним списком без просмотра всех вещей. Ключ n-граммы содержит её длину,
+ * так что n-граммы разной длины не совпадают. Пустой запрос совпадает с любой вещью.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index", matchIfMissing = true)
+public class ItemTrigramIndex implements ItemSearchEngine {
+    private static final int GRAM_LENGTH = 3;
+
+    private final ItemDbRepository itemRepository;
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final NavigableMap<Integer, Document> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Метод load заполняет индекс данными о всех вещах, зарегистрированных в системе.
+     */
+    @PostConstruct
+    public void load() {
+        List<Item> items = itemRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            items.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Индекс поиска: загружено {} вещей", documents.size());
+    }
+
+    /**
+     * Метод index добавляет вещь в индекс или обновляет её данные.
+     * Вещь, недоступная к бронированию, удаляется из индекса.
+     * @param item объект класса {@link Item}
+     */
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            delete(item.getId());
+            add(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Метод remove удаляет вещь из индекса.
+     * @param itemId идентификатор вещи
+     */
+    @Override
+    public void remove(Integer itemId) {
+        lock.writeLock().lock();
+        try {
+            delete(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Метод onUserDeleted удаляет из индекса вещи удалённого пользователя, которые база данных удалила каскадно.
+     * Выполняется после фиксации транзакции удаления раньше очистки {@link ItemSearchCache}.
+     * @param event событие удаления пользователя
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.getOwnedItems().forEach(item -> remove(item.getId()));
+    }
+
+    /**
+     * Метод findIds возвращает страницу идентификаторов вещей, название или описание которых содержит запрос.
+     * @param query поисковый запрос
+     * @param afterId идентификатор, больше которого должны быть идентификаторы найденных вещей
+     * @param limit максимальное количество найденных вещей
+     * @return упорядоченный по возрастанию список идентификаторов вещей
+     */
+    @Override
+    public List<Integer> findIds(String query, int afterId, int limit) {
+        String needle = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (needle.isEmpty()) {
+                return scan(needle, afterId, limit);
+            }
+            List<PostingList> lists = new ArrayList<>();
+            for (long gram : queryGrams(needle)) {
+                PostingList list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            PostingList shortest = lists.get(0);
+            List<Integer> found = new ArrayList<>();
+            for (int i = shortest.firstIndexAfter(afterId); i < shortest.size() && found.size() < limit; i++) {
+                int id = shortest.get(i);
+                if (containsAll(lists, id) && documents.get(id).contains(needle)) {
+                    found.add(id);
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> scan(String needle, int afterId, int limit) {
+        List<Integer> found = new ArrayList<>();
+        for (Map.Entry<Integer, Document> entry : documents.tailMap(afterId, false).entrySet()) {
+            if (found.size() == limit) {
+                break;
+            }
+            if (entry.getValue().contains(needle)) {
+                found.add(entry.getKey());
+            }
+        }
+        return found;
+    }
+
+    private boolean containsAll(List<PostingList> lists, int id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        Document document = new Document(normalize(item.getName()), normalize(item.getDescription()));
+        documents.put(item.getId(), document);
+        for (long gram : document.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(item.getId());
+        }
+    }
+
+    private void delete(Integer itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (long gram : document.grams()) {
+            PostingList list = postings.get(gram);
+            list.remove(itemId);
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(gram(text, i, length));
+            }
+        }
+        return grams;
+    }
+
+    private static Set<Long> queryGrams(String needle) {
+        if (needle.length() < GRAM_LENGTH) {
+            return Set.of(gram(needle, 0, needle.length()));
+        }
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= needle.length(); i++) {
+            grams.add(gram(needle, i, GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static long gram(String text, int start, int length) {
+        long gram = length;
+        for (int i = start; i < start + length; i++) {
+            gram = gram << 16 | text.charAt(i);
+        }
+        return gram;
+    }
+
+    /**
+     * Приватный класс Document хранит приведённые к верхнему регистру название и описание вещи.
+     */
+    private static final class Document {
+        private final String name;
+        private final String description;
+
+        private Document(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        private boolean contains(String needle) {
+            return name.contains(needle) || description.contains(needle);
+        }
+
+        private Set<Long> grams() {
+            Set<Long> grams = ItemTrigramIndex.grams(name);
+            grams.addAll(ItemTrigramIndex.grams(description));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.repository.db.ItemDbRepository;
+import ru.practicum.shareit.utility.KeysetPage;
+
+import java.util.List;
+
+/**
+ * Класс JpqlItemSearchEngine реализует методы интерфейса {@link ItemSearchEngine}
+ * с помощью переносимого запроса {@link ItemDbRepository#findIdsByNameOrDescriptionAndAvailable}.
+ * Используется для баз данных, не поддерживающих специальные средства поиска.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "jpql")
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemDbRepository itemRepository;
+
+    @Override
+    public List<Integer> findIds(String query, int afterId, int limit) {
+        return itemRepository.findIdsByNameOrDescriptionAndAvailable(query, afterId, KeysetPage.limit(limit));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>Класс PostgresItemSearchEngine реализует методы интерфейса {@link ItemSearchEngine}
+ * с помощью средств поиска PostgreSQL.</p>
+ * <p>Вещь считается найденной, если генерируемый столбец search_vector (конфигурации russian и simple)
+ * соответствует запросу, либо название или описание содержит запрос как подстроку.
+ * Поиск подстроки ускоряется GIN-индексами pg_trgm.</p>
+ * <p>Все найденные вещи упорядочены по убыванию ts_rank, а при равной релевантности - по возрастанию
+ * идентификатора. Курсором служит идентификатор последней вещи предыдущей страницы: по нему заново
+ * вычисляется её релевантность, и страница начинается с вещей, следующих за парой (релевантность, идентификатор).
+ * Если вещь-курсор удалена, следующая страница пуста.
+ * Объекты базы данных, необходимые для поиска, создаются скриптом schema-postgresql.sql.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private static final String SEARCH_QUERY = "with q as (" +
+            "select plainto_tsquery('russian', :query) || plainto_tsquery('simple', :query) as tsq" +
+            "), matches as (" +
+            "select it.item_id, ts_rank(it.search_vector, q.tsq) as rank from items as it, q " +
+            "where it.available and (it.search_vector @@ q.tsq " +
+            "or upper(it.name) like :pattern or upper(it.description) like :pattern)" +
+            "), cursor_row as (" +
+            "select ts_rank(it.search_vector, q.tsq) as rank from items as it, q where it.item_id = :afterId" +
+            ") " +
+            "select m.item_id from matches as m " +
+            "where :afterId = 0 or exists (select 1 from cursor_row as c " +
+            "where m.rank < c.rank or (m.rank = c.rank and m.item_id > :afterId)) " +
+            "order by m.rank desc, m.item_id limit :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Integer> findIds(String query, int afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("pattern", "%" + escapeLike(query.toUpperCase(Locale.ROOT)) + "%")
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForList(SEARCH_QUERY, parameters, Integer.class);
+    }
+
+    /**
+     * Полнотекстовый поиск учитывает словоформы, поэтому соответствие запросу нельзя проверить
+     * без обращения к базе данных, и любое изменение вещи считается затрагивающим запрос.
+     */
+    @Override
+    public boolean mayMatch(String query, Item item) {
+        return true;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
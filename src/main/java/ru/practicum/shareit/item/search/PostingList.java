@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Класс PostingList - упорядоченный по возрастанию список идентификаторов вещей без повторов,
+ * хранящийся в массиве примитивов. Используется в качестве списка вхождений триграммы в {@link ItemTrigramIndex}.
+ * Класс не является потокобезопасным.
+ */
+class PostingList {
+    private int[] ids = new int[4];
+    private int size;
+
+    void add(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return;
+        }
+        position = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        ids[position] = id;
+        size++;
+    }
+
+    void remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Метод firstIndexAfter возвращает позицию первого идентификатора, большего переданного.
+     * @param id идентификатор, после которого начинается поиск
+     * @return позиция в списке, равная размеру списка, если таких идентификаторов нет
+     */
+    int firstIndexAfter(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    int get(int index) {
+        return ids[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
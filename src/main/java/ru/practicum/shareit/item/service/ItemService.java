@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.comment.dto.RequestComment;
 import ru.practicum.shareit.comment.dto.ResponseComment;
 import ru.practicum.shareit.comment.model.Comment;
@@ -7,6 +8,9 @@ import ru.practicum.shareit.exception.DenialOfAccessException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -17,9 +21,11 @@ public interface ItemService {
     /**
      * Сервисный метод findAll возвращает список вещей, зарегистрированных на пользователя по userId.
      * @param  userId идентификатор владельца
-     * @return список всех вещей владельца, преобразованных в ItemDto
+     * @param cursor идентификатор последней вещи предыдущей страницы
+     * @param size размер страницы
+     * @return страница вещей владельца, преобразованных в ItemDto
      */
-    List<ItemDto> findAll(Integer userId);
+    List<ItemDto> findAll(Integer userId, Integer cursor, Integer size);
 
     /**
      * Сервисный метод findById возвращает данные о зарегистрированной вещи по переданному идентификатору.
@@ -29,6 +35,15 @@ public interface ItemService {
      */
     ItemDto findById(Integer itemId, Integer userId);
 
+    /**
+     * Сервисный метод writeById записывает в поток JSON с данными о вещи, минуя создание сущностей
+     * и объектов для передачи данных. Ответ совпадает с сериализацией результата {@link #findById}.
+     * @param itemId идентификатор вещи
+     * @param userId идентификатор пользователя
+     * @param out поток, в который записывается ответ
+     */
+    void writeById(Integer itemId, Integer userId, OutputStream out) throws IOException;
+
     /**
      * Сервисный метод saveItem отправляет запрос к хранилищу на сохранение данных о новой вещи её владельцем.
      * @param itemDto объект класса ItemDto
@@ -57,9 +72,21 @@ public interface ItemService {
     /**
      * Сервисный метод seekItem возвращает список вещей, найденных по запросу searchQuery.
      * @param searchQuery поисковый запрос, содержащий имя или описание вещи
-     * @return список вещей, преобразованных в ItemDto, которые были найдены по поисковому запросу
+     * @param cursor идентификатор последней вещи предыдущей страницы
+     * @param size размер страницы
+     * @return страница вещей, преобразованных в ItemDto, которые были найдены по поисковому запросу
+     */
+    List<ItemDto> seekItem(String searchQuery, Integer cursor, Integer size);
+
+    /**
+     * Сервисный метод findFreeSlots возвращает промежутки времени внутри периода,
+     * в которые вещь не забронирована и доступна к бронированию.
+     * @param itemId идентификатор вещи
+     * @param from дата и время начала периода
+     * @param to дата и время окончания периода
+     * @return список свободных промежутков, преобразованных в {@link FreeSlot}
      */
-    List<ItemDto> seekItem(String searchQuery);
+    List<FreeSlot> findFreeSlots(Integer itemId, LocalDateTime from, LocalDateTime to);
 
     /**
      * Сервисный метод addComment возвращает комментрий, который оставляет пользователь.
@@ -1,37 +1,58 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Status;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.calendar.BookingCalendar;
+import ru.practicum.shareit.booking.dto.FreeSlot;
 import ru.practicum.shareit.booking.repository.db.BookingDbRepository;
+import ru.practicum.shareit.booking.repository.db.BookingViewDbRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummary;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.comment.dto.RequestComment;
 import ru.practicum.shareit.comment.dto.ResponseComment;
+import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.db.CommentDbRepository;
 import ru.practicum.shareit.comment.utility.CommentMapper;
 import ru.practicum.shareit.exception.DenialOfAccessException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.ownership.ItemOwnershipIndex;
 import ru.practicum.shareit.item.repository.db.ItemDbRepository;
+import ru.practicum.shareit.item.repository.jdbc.ItemJdbcRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.utility.ItemMapper;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.db.UserDbRepository;
+import ru.practicum.shareit.user.repository.cache.UserCache;
+import ru.practicum.shareit.utility.AfterCommit;
+import ru.practicum.shareit.utility.KeysetPage;
+import ru.practicum.shareit.utility.ReadOnlyFanOut;
+import ru.practicum.shareit.utility.SecondLevelCache;
+import ru.practicum.shareit.utility.SingleFlight;
 
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Класс ItemServiceImplementation реализует методы интерфейса {@link ItemService}.
  * Описывает логику работы приложения c сущностью {@link Item}.
  * @see ItemDbRepository
- * @see UserDbRepository
+ * @see UserCache
  * @see ItemMapper
  * @see ItemDto
  */
@@ -40,50 +61,56 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemServiceImplementation implements ItemService {
     private final ItemDbRepository itemRepository;
-    private final UserDbRepository userRepository;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final UserCache userCache;
     private final BookingDbRepository bookingRepository;
+    private final BookingViewDbRepository bookingViewRepository;
     private final CommentDbRepository commentRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final BookingCalendar bookingCalendar;
+    private final ItemOwnershipIndex ownershipIndex;
+    private final SecondLevelCache secondLevelCache;
+    private final ReadOnlyFanOut fanOut;
+    private final ItemBookingSummaryService bookingSummary;
+    private final SingleFlight<ItemKey, ItemDto> itemFlights = new SingleFlight<>();
+    private final SingleFlight<SearchKey, List<ItemDto>> searchFlights = new SingleFlight<>();
 
     @Override
-    public List<ItemDto> findAll(Integer userId) {
+    public List<ItemDto> findAll(Integer userId, Integer cursor, Integer size) {
         log.info("Сервис: обработка запроска на получение списка всех вещей владельца с id {}", userId);
-        return itemRepository.findAllByOwnerId(userId).stream()
-                .map(ItemMapper::itemToDto)
-                .peek(itemDto -> {
-                    bookingRepository.findByItemIdAndStartIsBeforeOrderByEndDesc(
-                                    itemDto.getId(), LocalDateTime.now()).stream()
-                            .findFirst()
-                            .ifPresent(lastBooking -> itemDto.setLastBooking(ItemMapper.itemToBookingReference(lastBooking)));
-                    bookingRepository.findByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
-                                    itemDto.getId(), LocalDateTime.now(), Status.APPROVED).stream()
-                            .findFirst()
-                            .ifPresent(nextBooking -> itemDto.setNextBooking(ItemMapper.itemToBookingReference(nextBooking)));
-                })
-                .sorted(Comparator.comparing(ItemDto::getId))
+        KeysetPage.check(cursor, size);
+        List<ItemDto> items = itemRepository.findViewsByOwnerId(
+                        userId, KeysetPage.after(cursor), KeysetPage.limit(size)).stream()
+                .map(ItemMapper::viewToDto)
                 .collect(Collectors.toList());
+        fillBookings(items);
+        return items;
     }
 
     @Override
     public ItemDto findById(Integer itemId, Integer userId) {
         log.info("Сервис: обработка запроса на получение вещи с id {}", itemId);
-        ItemDto itemDto = ItemMapper.itemToDto(itemRepository.findById(itemId).orElseThrow(
-                () -> new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе"))
-        );
-        if (Objects.equals(itemDto.getOwnerId(), userId)) {
-            bookingRepository.findByItemIdAndStartIsBeforeOrderByEndDesc(
-                            itemId, LocalDateTime.now()).stream()
-                    .findFirst()
-                    .ifPresent(lastBooking -> itemDto.setLastBooking(ItemMapper.itemToBookingReference(lastBooking)));
-            bookingRepository.findByItemIdAndStartIsAfterAndStatusOrderByStartAsc(
-                    itemDto.getId(), LocalDateTime.now(), Status.APPROVED).stream()
-                    .findFirst()
-                    .ifPresent(nextBooking -> itemDto.setNextBooking(ItemMapper.itemToBookingReference(nextBooking)));
+        int ownerId = ownershipIndex.ownerOf(itemId);
+        if (ownerId == ItemOwnershipIndex.NO_OWNER) {
+            throw new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе");
+        }
+        boolean owner = ownerId == userId;
+        return ItemMapper.copy(itemFlights.execute(new ItemKey(itemId, owner), () -> fanOut.isEnabled()
+                ? loadItemConcurrently(itemId, owner)
+                : loadItem(itemId, owner)));
+    }
+
+    @Override
+    public void writeById(Integer itemId, Integer userId, OutputStream out) throws IOException {
+        log.info("Сервис: запись в поток вещи с id {}", itemId);
+        int ownerId = ownershipIndex.ownerOf(itemId);
+        ItemBookingSummary bookings = ownerId != ItemOwnershipIndex.NO_OWNER && ownerId == userId
+                ? bookingSummary.findAll(List.of(itemId)).get(itemId)
+                : null;
+        if (!itemJdbcRepository.writeById(itemId, bookings, out)) {
+            throw new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе");
         }
-        itemDto.setComments(commentRepository.findAllByItemIdOrderById(itemId).stream()
-                .map(CommentMapper::commentToResponse)
-                .collect(Collectors.toList())
-        );
-        return itemDto;
     }
 
     @Transactional
@@ -91,9 +118,12 @@ public class ItemServiceImplementation implements ItemService {
     public ItemDto saveItem(ItemDto itemDto, Integer userId) {
         log.info("Сервис: обработка запроса на сохранение вещи {} её владельцем с id {}", itemDto.getName(), userId);
         checkUser(userId);
-        Item savedItem = ItemMapper.dtoToItem(itemDto);
-        //savedItem.setOwnerId(userId);
-        return ItemMapper.itemToDto(itemRepository.save(savedItem));
+        Item savedItem = itemRepository.save(ItemMapper.dtoToItem(itemDto));
+        AfterCommit.run(() -> ownershipIndex.register(savedItem));
+        bookingSummary.register(savedItem.getId());
+        AfterCommit.run(() -> searchEngine.index(savedItem));
+        searchCache.invalidate(null, savedItem);
+        return ItemMapper.itemToDto(savedItem);
     }
 
     @Transactional
@@ -101,8 +131,9 @@ public class ItemServiceImplementation implements ItemService {
     public ItemDto updateItem(ItemDto itemDto, Integer userId) {
         log.info("Сервис: обработка запроса на изменение данных вещи {} пользователем с id {}", itemDto.getName(), userId);
         checkUser(userId);
-        checkPossession(itemDto, userId);
-        ItemDto storedItem = findById(itemDto.getId(), userId);
+        checkPossession(itemDto.getId(), userId);
+        ItemDto storedItem = loadItem(itemDto.getId(), true);
+        Item previousItem = ItemMapper.dtoToItem(storedItem);
         if (itemDto.getName() != null) {
             storedItem.setName(itemDto.getName());
         }
@@ -112,9 +143,12 @@ public class ItemServiceImplementation implements ItemService {
         if (itemDto.getAvailable() != null) {
             storedItem.setAvailable(itemDto.getAvailable());
         }
-        return ItemMapper.itemToDto(
-                itemRepository.save(ItemMapper.dtoToItem(storedItem))
-        );
+        Item updatedItem = itemRepository.save(ItemMapper.dtoToItem(storedItem));
+        bookingViewRepository.updateItem(updatedItem.getId(), updatedItem.getName(), updatedItem.getDescription(),
+                updatedItem.getAvailable());
+        AfterCommit.run(() -> searchEngine.index(updatedItem));
+        searchCache.invalidate(previousItem, updatedItem);
+        return ItemMapper.itemToDto(updatedItem);
     }
 
     @Transactional
@@ -122,30 +156,60 @@ public class ItemServiceImplementation implements ItemService {
     public void deleteItem(Integer itemId, Integer userId) {
         log.info("Сервис: обработка запроса на удаление вещи {} пользователем с id {}", itemId, userId);
         checkUser(userId);
-        ItemDto checkItem = ItemMapper.itemToDto(itemRepository.findById(itemId).orElseThrow(
-                () -> new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе")
-        ));
-        checkPossession(checkItem, userId);
+        checkPossession(itemId, userId);
+        Item deletedItem = checkItem(itemId);
         itemRepository.deleteById(itemId);
+        secondLevelCache.evictCascaded(Comment.class);
+        AfterCommit.run(() -> ownershipIndex.remove(itemId));
+        AfterCommit.run(() -> searchEngine.remove(itemId));
+        searchCache.invalidate(deletedItem, null);
+        bookingCalendar.removeItem(itemId);
     }
 
     @Override
-    public List<ItemDto> seekItem(String searchQuery) {
+    public List<ItemDto> seekItem(String searchQuery, Integer cursor, Integer size) {
         log.info("Сервис: обработка поискового запроса {}", searchQuery);
-        return itemRepository.findByNameOrDescriptionAndAvailable(searchQuery).stream()
-                .map(ItemMapper::itemToDto)
+        KeysetPage.check(cursor, size);
+        return searchFlights.execute(new SearchKey(searchQuery.toUpperCase(Locale.ROOT), cursor, size),
+                () -> search(searchQuery, cursor, size)).stream()
+                .map(ItemMapper::copy)
                 .collect(Collectors.toList());
     }
 
+    private List<ItemDto> search(String searchQuery, Integer cursor, Integer size) {
+        List<Integer> ids = searchCache.findIds(searchQuery, KeysetPage.after(cursor), size);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, ItemView> views = itemRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemView::getId, Function.identity()));
+        return ids.stream()
+                .map(views::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapper::viewToDto)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public List<FreeSlot> findFreeSlots(Integer itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Сервис: обработка запроса на получение свободных периодов вещи с id {} с {} по {}", itemId, from, to);
+        Item item = checkItem(itemId);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Дата начала периода должна быть раньше даты окончания");
+        }
+        if (!item.getAvailable()) {
+            return List.of();
+        }
+        return bookingCalendar.findFreeSlots(itemId, from, to);
+    }
+
     @Transactional
     @Override
     public ResponseComment addComment(RequestComment comment) {
         User author = checkUser(comment.getUserId());
         Item item = checkItem(comment.getItemId());
-        List<Booking> bookings = bookingRepository.findAllByItemIdAndBookerIdAndStatusAndEndIsBefore(
-                comment.getItemId(), comment.getUserId(), Status.APPROVED, LocalDateTime.now()
-        );
-        if (bookings.isEmpty()) {
+        if (!bookingRepository.existsFinishedBooking(
+                comment.getItemId(), comment.getUserId(), Status.APPROVED, LocalDateTime.now())) {
             throw new ValidationException("Пользователя с id " + comment.getUserId() + " не использовал вещи");
         }
         return CommentMapper.commentToResponse(
@@ -154,23 +218,103 @@ public class ItemServiceImplementation implements ItemService {
     }
 
     /**
-     * Приватный метод checkPossession проверяет является ли пользователь владельцем вещи.
+     * Приватный метод loadItem загружает вещь вместе с отзывами, а для владельца - и с бронированиями.
+     * Вызывается напрямую, если результат будет изменяться, так как результат объединённого вызова
+     * {@link #findById} общий для всех ожидавших его запросов.
+     * @param itemId идентификатор вещи
+     * @param owner true, если вещь запрашивает её владелец
+     * @return объект класса {@link ItemDto}
+     */
+    private ItemDto loadItem(Integer itemId, boolean owner) {
+        ItemDto itemDto = ItemMapper.viewToDto(itemRepository.findViewById(itemId).orElseThrow(
+                () -> new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе"))
+        );
+        if (owner) {
+            fillBookings(List.of(itemDto));
+        }
+        itemDto.setComments(commentRepository.findAllByItemIdOrderById(itemId).stream()
+                .map(CommentMapper::commentToResponse)
+                .collect(Collectors.toList())
+        );
+        return itemDto;
+    }
+
+    /**
+     * Приватный метод loadItemConcurrently загружает вещь так же, как {@link #loadItem}, но запрашивает вещь,
+     * отзывы и, для владельца, сводку бронирований параллельно. Вещь и отзывы читаются в отдельных транзакциях
+     * только для чтения, а сводка - вне транзакции, так как при чтении может пересчитывать устаревшие строки.
+     * Вызывающий поток не обращается к базе данных до получения всех результатов: при открытом на время запроса
+     * EntityManager он удерживал бы соединение, ожидая задачи, которым тоже нужны соединения, и при нагрузке
+     * исчерпал бы пул.
+     * @param itemId идентификатор вещи
+     * @param owner true, если вещь запрашивает её владелец
+     * @return объект класса {@link ItemDto}
+     */
+    private ItemDto loadItemConcurrently(Integer itemId, boolean owner) {
+        CompletableFuture<ItemDto> item = fanOut.supply(() ->
+                ItemMapper.viewToDto(itemRepository.findViewById(itemId).orElseThrow(
+                        () -> new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе"))
+                )
+        );
+        CompletableFuture<List<ResponseComment>> comments = fanOut.supply(() ->
+                commentRepository.findAllByItemIdOrderById(itemId).stream()
+                        .map(CommentMapper::commentToResponse)
+                        .collect(Collectors.toList())
+        );
+        CompletableFuture<Map<Integer, ItemBookingSummary>> summaries = owner
+                ? fanOut.supplyWritable(() -> bookingSummary.findAll(List.of(itemId)))
+                : CompletableFuture.completedFuture(Map.of());
+        CompletableFuture.allOf(item, comments, summaries).exceptionally(exception -> null).join();
+        ItemDto itemDto = ReadOnlyFanOut.join(item);
+        itemDto.setComments(ReadOnlyFanOut.join(comments));
+        applyBookings(Map.of(itemId, itemDto), ReadOnlyFanOut.join(summaries));
+        return itemDto;
+    }
+
+    /**
+     * Приватный метод checkPossession проверяет является ли пользователь владельцем вещи по индексу владельцев.
+     * Если вещь не зарегистрирована, то возникает исключение {@link NotFoundException}.
      * Если пользователь не является владельцем вещи, то возникает исключение {@link DenialOfAccessException}
-     * @param itemDto данные вещи для проверки
+     * @param itemId идентификатор вещи для проверки
      * @param ownerId идентификатор пользователя для проверки
      */
-    private void checkPossession(ItemDto itemDto, Integer ownerId) {
-        log.info("Сервис: проверка принадлежности вещи {} пользователю с id {}", itemDto.getName(), ownerId);
-        Item savedItem = checkItem(itemDto.getId());
-        if (!Objects.equals(savedItem.getOwnerId(), ownerId)) {
+    private void checkPossession(Integer itemId, Integer ownerId) {
+        log.info("Сервис: проверка принадлежности вещи с id {} пользователю с id {}", itemId, ownerId);
+        int owner = ownershipIndex.ownerOf(itemId);
+        if (owner == ItemOwnershipIndex.NO_OWNER) {
+            throw new NotFoundException("Вещь с id " + itemId + " не зарегистрирована в системе");
+        }
+        if (owner != ownerId) {
             throw new DenialOfAccessException(
-                    "Отказ в доступе. Пользователь с id " + ownerId + " не является владельцем вещи " + itemDto.getName()
+                    "Отказ в доступе. Пользователь с id " + ownerId + " не является владельцем вещи с id " + itemId
             );
         }
     }
 
+    /**
+     * Приватный метод fillBookings заполняет данные о последнем и следующем бронировании для всех переданных вещей
+     * по сводке бронирований {@link ItemBookingSummaryService}.
+     * @param items список вещей, преобразованных в {@link ItemDto}
+     */
+    private void fillBookings(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Integer, ItemDto> itemsById = items.stream()
+                .collect(Collectors.toMap(ItemDto::getId, Function.identity()));
+        applyBookings(itemsById, bookingSummary.findAll(itemsById.keySet()));
+    }
+
+    private void applyBookings(Map<Integer, ItemDto> itemsById, Map<Integer, ItemBookingSummary> summaries) {
+        summaries.values().forEach(summary -> {
+            ItemDto itemDto = itemsById.get(summary.getItemId());
+            itemDto.setLastBooking(summary.getLastBooking());
+            itemDto.setNextBooking(summary.getNextBooking());
+        });
+    }
+
     private User checkUser(Integer userId) {
-        return userRepository.findById(userId).orElseThrow(
+        return userCache.findById(userId).orElseThrow(
                 () -> new NotFoundException("Пользователь с id " + userId + " не зарегистрирован в системе")
         );
     }
@@ -180,4 +324,23 @@ public class ItemServiceImplementation implements ItemService {
                 () -> new NotFoundException("Вещь c id " + itemId + " не зарегистрирована в системе")
         );
     }
+
+    /**
+     * Ключ объединения запросов вещи. Ответы владельцу и остальным пользователям различаются.
+     */
+    @Value
+    private static class ItemKey {
+        Integer itemId;
+        boolean owner;
+    }
+
+    /**
+     * Ключ объединения поисковых запросов.
+     */
+    @Value
+    private static class SearchKey {
+        String query;
+        Integer cursor;
+        Integer size;
+    }
 }
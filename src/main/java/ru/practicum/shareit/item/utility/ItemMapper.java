@@ -2,10 +2,12 @@ package ru.practicum.shareit.item.utility;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingReference;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.stream.Collectors;
+
 /**
  * <p>Утилитарный класс ItemMapper предназначен для конвертации объектов, хранящихся в репозитории,
  * в объекты для передачи данных и обратно.</p>
@@ -45,7 +47,37 @@ public class ItemMapper {
                 .build();
     }
 
-    public static BookingReference itemToBookingReference(Booking booking) {
-        return new BookingReference(booking.getId(), booking.getBooker().getId());
+    /**
+     * Статичный метод viewToDto конвертирует проекцию вещи в объект класса ItemDto
+     * @param item проекция, содержащая данные о вещи
+     * @return объект класса ItemDto, полученный в результате преобразования item
+     */
+    public static ItemDto viewToDto(ItemView item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .ownerId(item.getOwnerId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .build();
+    }
+
+    /**
+     * Статичный метод copy создаёт независимую копию объекта itemDto вместе с бронированиями и отзывами
+     * @param itemDto dto объект, содержащий данные о вещи
+     * @return копия itemDto, изменение которой не затрагивает исходный объект
+     */
+    public static ItemDto copy(ItemDto itemDto) {
+        return itemDto.toBuilder()
+                .lastBooking(copy(itemDto.getLastBooking()))
+                .nextBooking(copy(itemDto.getNextBooking()))
+                .comments(itemDto.getComments() == null ? null : itemDto.getComments().stream()
+                        .map(comment -> comment.toBuilder().build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    private static BookingReference copy(BookingReference booking) {
+        return booking == null ? null : new BookingReference(booking.getId(), booking.getBookerId());
     }
 }
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Класс TrafficCaptureFilter сохраняет выборку запросов к API в файл JSONL для последующего
+ * воспроизведения. Сохраняются метод, путь с параметрами, заголовки из списка
+ * shareit.traffic.capture.headers, тело запроса, код ответа и время обработки.</p>
+ * <p>Фильтр включается свойством shareit.traffic.capture.enabled=true; доля сохраняемых запросов задаётся
+ * свойством shareit.traffic.capture.sample-rate, файл - shareit.traffic.capture.file. Запросы к /actuator
+ * не сохраняются. Для потоковых ответов время обработки измеряется до завершения асинхронной обработки.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.traffic.capture.enabled", havingValue = "true")
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+    private final TrafficCaptureWriter writer;
+    private final double sampleRate;
+    private final List<String> headers;
+    private final int maxBodySize;
+
+    public TrafficCaptureFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${shareit.traffic.capture.file:traffic/requests.jsonl}") Path file,
+                                @Value("${shareit.traffic.capture.sample-rate:1.0}") double sampleRate,
+                                @Value("${shareit.traffic.capture.headers:X-Sharer-User-Id,Content-Type}")
+                                List<String> headers,
+                                @Value("${shareit.traffic.capture.queue-capacity:10000}") int queueCapacity,
+                                @Value("${shareit.traffic.capture.max-body-size:65536}") int maxBodySize) {
+        this.writer = new TrafficCaptureWriter(file, queueCapacity, objectMapper, meterRegistry);
+        this.sampleRate = sampleRate;
+        this.headers = headers;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator")
+                || ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContentCachingRequestWrapper cachingRequest = new ContentCachingRequestWrapper(request, maxBodySize);
+        long timestamp = System.currentTimeMillis();
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(cachingRequest, response);
+        } finally {
+            if (cachingRequest.isAsyncStarted()) {
+                cachingRequest.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        capture(cachingRequest, response, timestamp, started);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                capture(cachingRequest, response, timestamp, started);
+            }
+        }
+    }
+
+    private void capture(ContentCachingRequestWrapper request, HttpServletResponse response,
+                         long timestamp, long started) {
+        Map<String, String> captured = new LinkedHashMap<>();
+        for (String header : headers) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                captured.put(header, value);
+            }
+        }
+        byte[] body = request.getContentAsByteArray();
+        String query = request.getQueryString();
+        writer.offer(TrafficRecord.builder()
+                .timestamp(timestamp)
+                .method(request.getMethod())
+                .uri(query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query)
+                .headers(captured)
+                .body(body.length == 0 ? null : new String(body, StandardCharsets.UTF_8))
+                .status(response.getStatus())
+                .durationMicros(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started))
+                .build());
+    }
+
+    @Override
+    public void destroy() {
+        writer.shutdown();
+    }
+}
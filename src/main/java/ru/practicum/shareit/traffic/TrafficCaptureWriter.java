@@ -0,0 +1,108 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Класс TrafficCaptureWriter дописывает записи о запросах в файл JSONL из отдельного потока.
+ * Потоки обработки запросов только кладут запись в ограниченную очередь; если очередь заполнена,
+ * запись отбрасывается и учитывается в метрике shareit.traffic.capture.dropped, чтобы медленный диск
+ * не замедлял ответы.</p>
+ */
+@Slf4j
+public class TrafficCaptureWriter {
+    private static final int DRAIN_LIMIT = 512;
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<TrafficRecord> queue;
+    private final Counter dropped;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+
+    public TrafficCaptureWriter(Path file, int capacity, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.dropped = Counter.builder("shareit.traffic.capture.dropped")
+                .description("Записи о запросах, отброшенные из-за переполнения очереди")
+                .register(meterRegistry);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+        this.writerThread = new Thread(this::writeLoop, "traffic-capture");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Метод ставит запись в очередь на запись без ожидания.
+     * @param record запись о запросе
+     * @return false, если очередь заполнена и запись отброшена
+     */
+    public boolean offer(TrafficRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void writeLoop() {
+        List<TrafficRecord> batch = new ArrayList<>(DRAIN_LIMIT);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            while (running || !queue.isEmpty()) {
+                TrafficRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_LIMIT - 1);
+                for (TrafficRecord record : batch) {
+                    writer.write(objectMapper.writeValueAsString(record));
+                    writer.newLine();
+                }
+                writer.flush();
+                batch.clear();
+            }
+        } catch (IOException exception) {
+            log.error("Запись трафика: не удалось записать файл {}", file, exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Метод дописывает оставшиеся в очереди записи и останавливает поток записи, ожидая его не дольше 10 секунд.
+     * Если ожидание прервано, флаг прерывания вызывающего потока восстанавливается.
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
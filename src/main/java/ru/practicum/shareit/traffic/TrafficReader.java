@@ -0,0 +1,44 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.experimental.UtilityClass;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * <p>Утилитарный класс TrafficReader читает записи о запросах из файла JSONL, созданного
+ * {@link TrafficCaptureFilter}. Записи читаются по одной строке, поэтому размер файла не ограничен памятью.</p>
+ */
+@UtilityClass
+public class TrafficReader {
+
+    /**
+     * Статичный метод read возвращает поток записей; пустые строки пропускаются.
+     * Поток нужно закрыть, чтобы закрыть reader.
+     * @param reader источник строк JSONL
+     * @param objectMapper объект для разбора JSON
+     * @return поток записей о запросах в порядке файла
+     */
+    public static Stream<TrafficRecord> read(BufferedReader reader, ObjectMapper objectMapper) {
+        return reader.lines()
+                .filter(line -> !line.isBlank())
+                .map(line -> {
+                    try {
+                        return objectMapper.readValue(line, TrafficRecord.class);
+                    } catch (JsonProcessingException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                })
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Запись о запросе к API, сохранённая {@link TrafficCaptureFilter} в одну строку JSONL.
+ * Класс содержит поля:
+ * <ul>
+ *     <li>timestamp - время начала обработки запроса в миллисекундах от начала эпохи, тип long</li>
+ *     <li>method - HTTP-метод, тип {@link String}</li>
+ *     <li>uri - путь запроса вместе со строкой параметров, тип {@link String}</li>
+ *     <li>headers - сохранённые заголовки запроса, тип {@link Map}</li>
+ *     <li>body - тело запроса или null, тип {@link String}</li>
+ *     <li>status - код ответа, тип int</li>
+ *     <li>durationMicros - время обработки запроса в микросекундах, тип long</li>
+ * </ul>
+ */
+@Data
+@Builder
+@RequiredArgsConstructor
+@AllArgsConstructor
+public class TrafficRecord {
+    private long timestamp;
+    private String method;
+    private String uri;
+    private Map<String, String> headers;
+    private String body;
+    private int status;
+    private long durationMicros;
+}
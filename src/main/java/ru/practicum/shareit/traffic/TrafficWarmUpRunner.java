@@ -0,0 +1,227 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Класс TrafficWarmUpRunner прогревает приложение перед тем, как оно сообщит о готовности принимать трафик.
+ * Spring Boot переводит состояние готовности в ACCEPTING_TRAFFIC только после выполнения всех
+ * {@link ApplicationRunner}, поэтому пока идёт прогрев, /actuator/health/readiness отвечает OUT_OF_SERVICE
+ * и балансировщик не направляет запросы на экземпляр.</p>
+ * <p>Прогрев повторяет GET-запросы выборки через собственный HTTP-порт. Выборкой служит файл
+ * shareit.warm-up.sample, записанный {@link TrafficCaptureFilter}, а если он не указан - запросы, которые
+ * {@link WarmUpSampleBuilder} составляет по существующим в базе пользователям, вещам и бронированиям.
+ * Запросы других методов пропускаются, чтобы прогрев не изменял данные. Перед первым кругом
+ * {@link WarmUpCacheLoader} явно загружает упомянутых в выборке пользователей, вещи и результаты поиска
+ * в кэш пользователей, кэш поиска и кэш второго уровня, а круги прогревают JIT, планы запросов Hibernate,
+ * пул соединений и сериализаторы Jackson. Выборка повторяется кругами, пока медианная задержка
+ * shareit.warm-up.stable-rounds кругов подряд отличается от предыдущей не больше чем на shareit.warm-up.tolerance
+ * или пока не истечёт shareit.warm-up.max-duration.</p>
+ * <p>Записанная выборка должна соответствовать данным: если она ссылается на отсутствующих пользователей и вещи,
+ * запросы возвращают ошибки, и прогрев пропускается с предупреждением. На пустой базе прогрев не выполняется.</p>
+ * <p>Прогрев отключается свойством shareit.warm-up.enabled=false и не выполняется без встроенного веб-сервера.</p>
+ */
+@Slf4j
+@Component
+public class TrafficWarmUpRunner implements ApplicationRunner {
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+            "upgrade");
+
+    private final ApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final WarmUpSampleBuilder sampleBuilder;
+    private final WarmUpCacheLoader cacheLoader;
+    private final boolean enabled;
+    private final Resource sample;
+    private final int threads;
+    private final int minRounds;
+    private final int stableRounds;
+    private final double tolerance;
+    private final Duration maxDuration;
+    private final double minSuccessRate;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public TrafficWarmUpRunner(ApplicationContext context, ObjectMapper objectMapper,
+                               WarmUpSampleBuilder sampleBuilder, WarmUpCacheLoader cacheLoader,
+                               @Value("${shareit.warm-up.enabled:true}") boolean enabled,
+                               @Value("${shareit.warm-up.sample:#{null}}") Resource sample,
+                               @Value("${shareit.warm-up.threads:4}") int threads,
+                               @Value("${shareit.warm-up.min-rounds:3}") int minRounds,
+                               @Value("${shareit.warm-up.stable-rounds:3}") int stableRounds,
+                               @Value("${shareit.warm-up.tolerance:0.1}") double tolerance,
+                               @Value("${shareit.warm-up.max-duration:30s}") Duration maxDuration,
+                               @Value("${shareit.warm-up.min-success-rate:0.5}") double minSuccessRate) {
+        this.context = context;
+        this.objectMapper = objectMapper;
+        this.sampleBuilder = sampleBuilder;
+        this.cacheLoader = cacheLoader;
+        this.enabled = enabled;
+        this.sample = sample;
+        this.threads = threads;
+        this.minRounds = minRounds;
+        this.stableRounds = stableRounds;
+        this.tolerance = tolerance;
+        this.maxDuration = maxDuration;
+        this.minSuccessRate = minSuccessRate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled || !(context instanceof WebServerApplicationContext)
+                || ((WebServerApplicationContext) context).getWebServer().getPort() <= 0) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+        warmUp(((WebServerApplicationContext) context).getWebServer().getPort());
+    }
+
+    /**
+     * Метод повторяет выборку запросов, пока задержка не перестанет снижаться. Если в первом круге
+     * успешных ответов меньше доли shareit.warm-up.min-success-rate, выборка не соответствует данным
+     * (например, ссылается на отсутствующих пользователей и вещи) и прогрев прекращается: ответы с ошибкой
+     * не прогревают ни сериализацию, ни запросы к базе данных.
+     * @param port порт встроенного веб-сервера
+     * @return количество выполненных кругов или 0, если прогрев пропущен
+     */
+    int warmUp(int port) throws IOException, InterruptedException {
+        List<TrafficRecord> records = sample == null ? sampleBuilder.build() : readSample();
+        String source = sample == null ? "по данным базы" : sample.getDescription();
+        if (records.isEmpty()) {
+            log.warn("Прогрев: в выборке {} нет GET-запросов; прогрев пропущен", source);
+            return 0;
+        }
+        cacheLoader.preload(records);
+        long started = System.nanoTime();
+        long deadline = started + maxDuration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int rounds = 0;
+        int stable = 0;
+        long previousMedian = -1;
+        try {
+            while (System.nanoTime() < deadline && (rounds < minRounds || stable < stableRounds)) {
+                Round round = replayRound(executor, records, port, deadline);
+                if (rounds == 0 && round.getSuccessful() < round.getSent() * minSuccessRate) {
+                    log.warn("Прогрев: выборка {} не соответствует данным, успешных ответов {} из {}; прогрев пропущен",
+                            source, round.getSuccessful(), round.getSent());
+                    return 0;
+                }
+                rounds++;
+                long median = round.getMedian();
+                if (previousMedian > 0 && Math.abs(median - previousMedian) <= previousMedian * tolerance) {
+                    stable++;
+                } else {
+                    stable = 0;
+                }
+                log.debug("Прогрев: круг {}, медиана {} мкс", rounds, median);
+                previousMedian = median;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Прогрев: {} кругов по {} запросов за {} мс, медиана {} мкс{}", rounds, records.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), previousMedian,
+                stable >= stableRounds ? "" : ", задержка не стабилизировалась");
+        return rounds;
+    }
+
+    private List<TrafficRecord> readSample() throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(sample.getInputStream(), StandardCharsets.UTF_8));
+        try (Stream<TrafficRecord> records = TrafficReader.read(reader, objectMapper)) {
+            return records
+                    .filter(record -> "GET".equalsIgnoreCase(record.getMethod()))
+                    .filter(record -> !record.getUri().startsWith("/actuator"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Round replayRound(ExecutorService executor, List<TrafficRecord> records, int port, long deadline)
+            throws InterruptedException {
+        long[] latencies = new long[records.size()];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger successful = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    for (int index = next.getAndIncrement(); index < latencies.length
+                            && System.nanoTime() < deadline; index = next.getAndIncrement()) {
+                        long started = System.nanoTime();
+                        if (send(records.get(index), port)) {
+                            successful.incrementAndGet();
+                        }
+                        latencies[index] = Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started));
+                    }
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        long[] sorted = Arrays.stream(latencies).filter(latency -> latency > 0).sorted().toArray();
+        return new Round(sorted.length == 0 ? 0 : sorted[sorted.length / 2], sorted.length, successful.get());
+    }
+
+    private boolean send(TrafficRecord record, int port) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + record.getUri()))
+                .timeout(Duration.ofSeconds(10))
+                .GET();
+        if (record.getHeaders() != null) {
+            record.getHeaders().forEach((name, value) -> {
+                if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    request.header(name, value);
+                }
+            });
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+        } catch (IOException exception) {
+            log.debug("Прогрев: запрос {} не выполнен", record.getUri(), exception);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    /**
+     * Результат одного круга: медианная задержка в микросекундах, количество отправленных и успешных запросов.
+     */
+    @lombok.Value
+    private static class Round {
+        long median;
+        int sent;
+        int successful;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.traffic;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import ru.practicum.shareit.comment.repository.db.CommentDbRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.repository.db.ItemDbRepository;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.user.repository.cache.UserCache;
+import ru.practicum.shareit.utility.KeysetPage;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Класс WarmUpCacheLoader заполняет кэши данными, на которые ссылается выборка прогрева, до первых
+ * HTTP-запросов: кэш пользователей {@link UserCache}, кэш результатов поиска {@link ItemSearchCache}
+ * и кэш второго уровня Hibernate - сущности вещей и пользователей, а также кэшируемые запросы карточки вещи
+ * и её отзывов с авторами. Поэтому уже первый круг прогрева читает данные из кэшей, а круги прогревают
+ * JIT, сериализацию и пулы.</p>
+ * <p>Идентификаторы берутся из заголовка X-Sharer-User-Id и путей запросов /users/{id}, /items/{id}
+ * и /items/search. Запросы, параметры которых не разбираются, пропускаются.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WarmUpCacheLoader {
+    private static final Pattern USER_PATH = Pattern.compile("/users/(\\d+)");
+    private static final Pattern ITEM_PATH = Pattern.compile("/items/(\\d+)");
+
+    private final UserCache userCache;
+    private final ItemSearchCache searchCache;
+    private final ItemDbRepository itemRepository;
+    private final CommentDbRepository commentRepository;
+
+    /**
+     * Метод загружает в кэши пользователей, вещи и результаты поиска, упомянутые в запросах выборки.
+     * @param records запросы выборки прогрева
+     */
+    public void preload(List<TrafficRecord> records) {
+        Set<Integer> userIds = new LinkedHashSet<>();
+        Set<Integer> itemIds = new LinkedHashSet<>();
+        Set<SearchPage> searches = new LinkedHashSet<>();
+        for (TrafficRecord record : records) {
+            try {
+                collect(record, userIds, itemIds, searches);
+            } catch (IllegalArgumentException | ValidationException exception) {
+                log.debug("Прогрев: запрос {} пропущен при заполнении кэшей", record.getUri(), exception);
+            }
+        }
+        userIds.forEach(userCache::findById);
+        itemRepository.findAllById(itemIds);
+        for (Integer itemId : itemIds) {
+            itemRepository.findViewById(itemId);
+            commentRepository.findAllByItemIdOrderById(itemId);
+        }
+        searches.forEach(page -> searchCache.findIds(page.getText(), KeysetPage.after(page.getCursor()),
+                page.getSize()));
+        log.info("Прогрев: в кэши загружено пользователей {}, вещей {}, страниц поиска {}",
+                userIds.size(), itemIds.size(), searches.size());
+    }
+
+    private static void collect(TrafficRecord record, Set<Integer> userIds, Set<Integer> itemIds,
+                                Set<SearchPage> searches) {
+        if (record.getHeaders() != null) {
+            for (Map.Entry<String, String> header : record.getHeaders().entrySet()) {
+                if ("X-Sharer-User-Id".equalsIgnoreCase(header.getKey())) {
+                    userIds.add(Integer.valueOf(header.getValue().trim()));
+                }
+            }
+        }
+        UriComponents uri = UriComponentsBuilder.fromUriString(record.getUri()).build();
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        Matcher user = USER_PATH.matcher(path);
+        Matcher item = ITEM_PATH.matcher(path);
+        if (user.matches()) {
+            userIds.add(Integer.valueOf(user.group(1)));
+        } else if (item.matches()) {
+            itemIds.add(Integer.valueOf(item.group(1)));
+        } else if ("/items/search".equals(path)) {
+            MultiValueMap<String, String> parameters = uri.getQueryParams();
+            String text = decode(parameters.getFirst("text"));
+            String cursor = parameters.getFirst("cursor");
+            String size = parameters.getFirst("size");
+            if (text != null && !text.isBlank()) {
+                SearchPage page = new SearchPage(text, cursor == null ? null : Integer.valueOf(cursor),
+                        Integer.valueOf(size == null ? KeysetPage.DEFAULT_SIZE : size));
+                KeysetPage.check(page.getCursor(), page.getSize());
+                searches.add(page);
+            }
+        }
+    }
+
+    private static String decode(String value) {
+        return value == null ? null : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Страница поиска: запрос, курсор и размер страницы.
+     */
+    @Value
+    private static class SearchPage {
+        String text;
+        Integer cursor;
+        Integer size;
+    }
+}
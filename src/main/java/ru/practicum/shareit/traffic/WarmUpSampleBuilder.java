@@ -0,0 +1,93 @@
+package ru.practicum.shareit.traffic;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.State;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Класс WarmUpSampleBuilder составляет выборку GET-запросов для прогрева из данных базы, если файл
+ * с записанным трафиком не указан. Запросы ссылаются только на существующих пользователей, вещи и бронирования,
+ * поэтому прогрев не зависит от того, какие идентификаторы выдала база.</p>
+ * <p>Из базы читаются первые shareit.warm-up.sample-size вещей с владельцами и последние
+ * shareit.warm-up.sample-size бронирований с арендаторами. По ним составляются запросы вещи от имени владельца
+ * и арендатора, списка вещей, профиля и бронирований владельца во всех состояниях, бронирований арендатора
+ * и поиска по первому слову названия вещи.</p>
+ */
+@Component
+public class WarmUpSampleBuilder {
+    private final JdbcTemplate jdbcTemplate;
+    private final int sampleSize;
+
+    public WarmUpSampleBuilder(JdbcTemplate jdbcTemplate, @Value("${shareit.warm-up.sample-size:20}") int sampleSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Метод составляет выборку запросов по данным базы.
+     * @return список GET-запросов; пустой, если в базе нет вещей и бронирований
+     */
+    public List<TrafficRecord> build() {
+        List<TrafficRecord> records = new ArrayList<>();
+        List<Integer> bookers = new ArrayList<>();
+        jdbcTemplate.query("select booking_id, user_id from bookings order by booking_id desc limit ?",
+                resultSet -> {
+                    int bookerId = resultSet.getInt("user_id");
+                    bookers.add(bookerId);
+                    records.add(get("/bookings/" + resultSet.getInt("booking_id"), bookerId));
+                }, sampleSize);
+        Set<Integer> owners = new LinkedHashSet<>();
+        Set<String> words = new LinkedHashSet<>();
+        jdbcTemplate.query("select item_id, owner_id, name from items order by item_id limit ?",
+                resultSet -> {
+                    int itemId = resultSet.getInt("item_id");
+                    int ownerId = resultSet.getInt("owner_id");
+                    records.add(get("/items/" + itemId, ownerId));
+                    if (!bookers.isEmpty()) {
+                        records.add(get("/items/" + itemId, bookers.get(itemId % bookers.size())));
+                    }
+                    owners.add(ownerId);
+                    String name = resultSet.getString("name").trim();
+                    if (!name.isEmpty()) {
+                        words.add(name.split("\\s+")[0]);
+                    }
+                }, sampleSize);
+        for (Integer ownerId : owners) {
+            records.add(get("/items", ownerId));
+            records.add(get("/users/" + ownerId, ownerId));
+            for (State state : State.values()) {
+                records.add(get("/bookings/owner?state=" + state, ownerId));
+            }
+        }
+        for (Integer bookerId : new LinkedHashSet<>(bookers)) {
+            for (State state : State.values()) {
+                records.add(get("/bookings?state=" + state, bookerId));
+            }
+        }
+        if (!owners.isEmpty()) {
+            Integer userId = owners.iterator().next();
+            for (String word : words) {
+                records.add(get("/items/search?text=" + URLEncoder.encode(word, StandardCharsets.UTF_8), userId));
+            }
+        }
+        return records;
+    }
+
+    private static TrafficRecord get(String uri, int userId) {
+        return TrafficRecord.builder()
+                .method("GET")
+                .uri(uri)
+                .headers(Map.of("X-Sharer-User-Id", Integer.toString(userId)))
+                .status(200)
+                .build();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utility.KeysetPage;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -23,13 +24,16 @@ public class UserController {
 
     /**
      * Метод findAll обрабатывает GET-метод запроса к эндпоинту /users,
-     * обращается к методу {@link UserService#findAll()}.
-     * @return список всех зарегистрированных пользователей, преобразованных в userDto.
+     * обращается к методу {@link UserService#findAll(Integer, Integer)}.
+     * @param cursor необязательный параметр, идентификатор последнего пользователя предыдущей страницы
+     * @param size необязательный параметр, размер страницы (по умолчанию {@value KeysetPage#DEFAULT_SIZE})
+     * @return страница зарегистрированных пользователей, преобразованных в userDto.
      */
     @GetMapping
-    public List<UserDto> findAll() {
+    public List<UserDto> findAll(@RequestParam(required = false) Integer cursor,
+                                 @RequestParam(defaultValue = KeysetPage.DEFAULT_SIZE) Integer size) {
         log.info("Контроллер: GET-запрос по эндпоинту /users");
-        return userService.findAll();
+        return userService.findAll(cursor, size);
     }
 
     /**
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * <p>Событие UserDeletedEvent публикуется при удалении пользователя до удаления строки из базы данных,
+ * в той же транзакции. База данных удаляет каскадно вещи пользователя, их бронирования и отзывы,
+ * а также бронирования пользователя, поэтому индексы и кэши в памяти приложения обрабатывают событие сами.</p>
+ * <p>Обработчики, которым нужны удаляемые строки или запись в базу данных, подписываются через
+ * {@link org.springframework.context.event.EventListener} и выполняются до удаления. Остальные подписываются через
+ * {@link org.springframework.transaction.event.TransactionalEventListener} и выполняются после фиксации транзакции.</p>
+ */
+@Value
+public class UserDeletedEvent {
+    /**
+     * Идентификатор удаляемого пользователя.
+     */
+    Integer userId;
+    /**
+     * Вещи пользователя в состоянии до удаления.
+     */
+    List<Item> ownedItems;
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.user.repository.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.db.UserDbRepository;
+import ru.practicum.shareit.utility.AfterCommit;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * <p>Класс UserCache - ограниченный по размеру и времени жизни кэш пользователей перед {@link UserDbRepository}.</p>
+ * <p>Вытеснение выполняется по алгоритму W-TinyLFU библиотеки Caffeine. Количество попаданий, промахов
+ * и вытеснений публикуется в метриках cache.gets и cache.evictions с тегом cache=users.
+ * Отсутствующие пользователи не кэшируются.</p>
+ */
+@Component
+public class UserCache {
+    private final UserDbRepository repository;
+    private final Cache<Integer, User> cache;
+
+    public UserCache(UserDbRepository repository, MeterRegistry meterRegistry,
+                     @Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${shareit.cache.users.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    /**
+     * Метод возвращает пользователя из кэша, при промахе загружая его из базы данных.
+     * @param userId идентификатор пользователя
+     * @return пользователь или пустой {@link Optional}, если пользователь не зарегистрирован
+     */
+    public Optional<User> findById(Integer userId) {
+        return Optional.ofNullable(cache.get(userId, id -> repository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Метод удаляет пользователя из кэша. Внутри транзакции удаление повторяется после её фиксации,
+     * чтобы параллельный запрос не вернул в кэш данные, прочитанные до фиксации изменений.
+     * @param userId идентификатор пользователя
+     */
+    public void evict(Integer userId) {
+        cache.invalidate(userId);
+        AfterCommit.run(() -> cache.invalidate(userId));
+    }
+
+    /**
+     * Метод удаляет удалённого пользователя из кэша после фиксации транзакции.
+     * @param event событие удаления пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        cache.invalidate(event.getUserId());
+    }
+}
@@ -1,7 +1,18 @@
 package ru.practicum.shareit.user.repository.db;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.List;
+
 public interface UserDbRepository extends JpaRepository<User, Integer> {
+
+    /**
+     * Метод позволяет получить страницу зарегистрированных пользователей
+     * @param cursor идентификатор, больше которого должны быть идентификаторы пользователей страницы
+     * @param page ограничение размера страницы
+     * @return список пользователей, преобразованных в {@link User}
+     */
+    List<User> findAllByIdGreaterThanOrderByIdAsc(Integer cursor, Pageable page);
 }
@@ -12,10 +12,12 @@ import java.util.List;
  */
 public interface UserService {
     /**
-     * Сервисный метод findAll возвращает список зарегистрированных пользователей
+     * Сервисный метод findAll возвращает страницу зарегистрированных пользователей
+     * @param cursor идентификатор последнего пользователя предыдущей страницы
+     * @param size размер страницы
      * @return список пользователей, преобразованных в UserDto
      */
-    List<UserDto> findAll();
+    List<UserDto> findAll(Integer cursor, Integer size);
 
     /**
      * Сервисный метод findById возвращает данные зарегистрированного пользователя по переданному идентификатору
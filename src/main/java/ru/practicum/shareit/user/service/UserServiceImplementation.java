@@ -2,14 +2,20 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.repository.db.BookingViewDbRepository;
 import ru.practicum.shareit.exception.DuplicateDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.repository.db.ItemDbRepository;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.cache.UserCache;
 import ru.practicum.shareit.user.repository.db.UserDbRepository;
 import ru.practicum.shareit.user.utility.UserMapper;
+import ru.practicum.shareit.utility.KeysetPage;
 
 import javax.transaction.Transactional;
 import java.util.List;
@@ -27,11 +33,16 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImplementation implements UserService {
     private final UserDbRepository repository;
+    private final UserCache userCache;
+    private final BookingViewDbRepository bookingViewRepository;
+    private final ItemDbRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
-    public List<UserDto> findAll() {
+    public List<UserDto> findAll(Integer cursor, Integer size) {
         log.info("Сервис: обработка запроса на получение списка всех пользователей");
-        return repository.findAll().stream()
+        KeysetPage.check(cursor, size);
+        return repository.findAllByIdGreaterThanOrderByIdAsc(KeysetPage.after(cursor), KeysetPage.limit(size)).stream()
                 .map(UserMapper::userToDto)
                 .collect(Collectors.toList());
     }
@@ -64,6 +75,7 @@ public class UserServiceImplementation implements UserService {
         User storedUser = repository.findById(userDto.getId()).orElseThrow(
                 () -> new NotFoundException("Пользователь с id " + userDto.getId() + " не найден")
         );
+        userCache.evict(storedUser.getId());
         if (userDto.getEmail() != null) {
             storedUser.setEmail(userDto.getEmail());
         }
@@ -71,9 +83,9 @@ public class UserServiceImplementation implements UserService {
             storedUser.setName(userDto.getName());
         }
         try {
-            return UserMapper.userToDto(
-                    repository.save(storedUser)
-            );
+            User savedUser = repository.save(storedUser);
+            bookingViewRepository.updateBooker(savedUser.getId(), savedUser.getName(), savedUser.getEmail());
+            return UserMapper.userToDto(savedUser);
         } catch (DataIntegrityViolationException exception) {
             throw  new DuplicateDataException("Email адрес " + userDto.getEmail() + " уже зарегистрирован");
         }
@@ -83,6 +95,7 @@ public class UserServiceImplementation implements UserService {
     @Override
     public void deleteUser(Integer userId) {
         log.info("Сервис: обработка запроса на удаление пользователя с id {}", userId);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, itemRepository.findAllByOwnerId(userId)));
         repository.deleteById(userId);
     }
 }
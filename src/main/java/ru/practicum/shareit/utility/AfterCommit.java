@@ -0,0 +1,32 @@
+package ru.practicum.shareit.utility;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * <p>Утилитарный класс AfterCommit откладывает изменение индексов и кэшей в памяти приложения до фиксации
+ * транзакции. Если транзакция будет откачена, изменение не выполняется, и индекс остаётся согласованным
+ * с базой данных.</p>
+ */
+@UtilityClass
+public class AfterCommit {
+
+    /**
+     * Статичный метод run выполняет действие после фиксации текущей транзакции,
+     * а вне транзакции - сразу.
+     * @param action действие
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.utility;
+
+import java.util.Arrays;
+
+/**
+ * <p>Класс IntIntOpenHashMap - отображение положительных целых ключей на целые значения, хранящееся
+ * в двух массивах примитивов. Коллизии разрешаются линейным пробированием, удаление выполняется сдвигом
+ * последующих элементов цепочки, поэтому таблица не накапливает удалённых ячеек.</p>
+ * <p>Чтение и запись не создают объектов. Класс не является потокобезопасным.</p>
+ */
+public class IntIntOpenHashMap {
+    private static final int FREE = 0;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+
+    public IntIntOpenHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Метод возвращает значение, связанное с ключом.
+     * @param key положительный ключ
+     * @param missingValue значение, которое возвращается при отсутствии ключа
+     * @return значение или missingValue
+     */
+    public int get(int key, int missingValue) {
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missingValue;
+    }
+
+    /**
+     * Метод связывает значение с ключом, заменяя прежнее значение.
+     * @param key положительный ключ
+     * @param value значение
+     */
+    public void put(int key, int value) {
+        if (key <= FREE) {
+            throw new IllegalArgumentException("Ключ должен быть положительным: " + key);
+        }
+        int slot = slot(key);
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Метод удаляет ключ вместе со связанным значением.
+     * @param key положительный ключ
+     */
+    public void remove(int key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == FREE) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        size--;
+        int free = slot;
+        int next = (slot + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[free] = FREE;
+    }
+
+    /**
+     * Метод удаляет все ключи, связанные с переданным значением. Выполняется полным просмотром таблицы.
+     * @param value значение
+     */
+    public void removeValue(int value) {
+        int slot = 0;
+        while (slot < keys.length) {
+            if (keys[slot] != FREE && values[slot] == value) {
+                remove(keys[slot]);
+                // на место удалённого ключа мог сдвинуться следующий элемент цепочки
+                continue;
+            }
+            slot++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utility;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * <p>Утилитарный класс KeysetPage содержит вспомогательные методы для постраничной выдачи списков
+ * по ключу (keyset pagination).</p>
+ * <p>Страница задаётся курсором - идентификатором последней записи предыдущей страницы,
+ * и размером страницы. Если курсор не передан, то выдача начинается с первой записи.</p>
+ */
+@UtilityClass
+public class KeysetPage {
+    public static final String DEFAULT_SIZE = "20";
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * Статичный метод check проверяет параметры страницы.
+     * Если параметры некорректны, то возникает исключение {@link ValidationException}
+     * @param cursor идентификатор последней записи предыдущей страницы
+     * @param size размер страницы
+     */
+    public static void check(Integer cursor, Integer size) {
+        if (cursor != null && cursor < 0) {
+            throw new ValidationException("Курсор не может быть отрицательным числом");
+        }
+        if (size == null || size <= 0 || size > MAX_SIZE) {
+            throw new ValidationException("Размер страницы должен быть в пределах от 1 до " + MAX_SIZE);
+        }
+    }
+
+    /**
+     * Статичный метод limit возвращает ограничение выборки для запроса к хранилищу.
+     * @param size размер страницы
+     * @return объект класса {@link Pageable}
+     */
+    public static Pageable limit(Integer size) {
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Статичный метод before возвращает границу выборки для записей, упорядоченных по убыванию идентификатора.
+     * @param cursor идентификатор последней записи предыдущей страницы
+     * @return идентификатор, меньше которого должны быть идентификаторы записей страницы
+     */
+    public static Integer before(Integer cursor) {
+        return cursor == null ? Integer.MAX_VALUE : cursor;
+    }
+
+    /**
+     * Статичный метод after возвращает границу выборки для записей, упорядоченных по возрастанию идентификатора.
+     * @param cursor идентификатор последней записи предыдущей страницы
+     * @return идентификатор, больше которого должны быть идентификаторы записей страницы
+     */
+    public static Integer after(Integer cursor) {
+        return cursor == null ? 0 : cursor;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.utility;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Класс ReadOnlyFanOut выполняет независимые запросы на чтение параллельно на ограниченном пуле потоков.
+ * Каждая задача выполняется в собственной транзакции только для чтения, поэтому обращаться
+ * к ленивым связям сущностей нужно внутри задачи. Задачи, которые при чтении могут записывать,
+ * запускаются методом {@link #supplyWritable} вне транзакции.</p>
+ * <p>Пул ограничен свойствами shareit.fan-out.threads и shareit.fan-out.queue-capacity; при переполнении
+ * очереди задача выполняется в вызывающем потоке. Свойство shareit.fan-out.enabled=false отключает
+ * параллельное выполнение.</p>
+ * <p>Вызывающий поток не должен удерживать соединение с базой данных, ожидая результаты задач: иначе при
+ * нагрузке все соединения пула окажутся у ожидающих потоков, а задачи не смогут получить ни одного.</p>
+ */
+@Component
+public class ReadOnlyFanOut {
+    private final boolean enabled;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+
+    public ReadOnlyFanOut(PlatformTransactionManager transactionManager,
+                          @Value("${shareit.fan-out.enabled:true}") boolean enabled,
+                          @Value("${shareit.fan-out.threads:8}") int threads,
+                          @Value("${shareit.fan-out.queue-capacity:256}") int queueCapacity) {
+        this.enabled = enabled;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "fan-out-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Метод запускает запрос в отдельной транзакции только для чтения.
+     * @param query запрос
+     * @param <T> тип результата
+     * @return будущий результат запроса
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), executor);
+    }
+
+    /**
+     * Метод запускает на том же пуле задачу, которая при чтении может записывать, без транзакции только
+     * для чтения. Задача сама отвечает за свои транзакции.
+     * @param query запрос
+     * @param <T> тип результата
+     * @return будущий результат запроса
+     */
+    public <T> CompletableFuture<T> supplyWritable(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    /**
+     * Метод ожидает результат запроса и пробрасывает его исключение без обёртки.
+     * @param future будущий результат запроса
+     * @param <T> тип результата
+     * @return результат запроса
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getCause();
+            }
+            throw exception;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
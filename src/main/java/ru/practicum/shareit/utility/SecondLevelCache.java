@@ -0,0 +1,61 @@
+package ru.practicum.shareit.utility;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.comment.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * <p>Класс SecondLevelCache очищает регионы кэша второго уровня Hibernate после удалений,
+ * которые база данных выполняет каскадно по внешним ключам в обход Hibernate.</p>
+ * <p>Записи, изменённые через Hibernate, обновляются в кэше автоматически.
+ * Внутри транзакции очистка повторяется после её фиксации.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCache {
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Метод очищает кэш при запуске. Менеджер кэшей JCache общий для всех контекстов приложения в JVM,
+     * а schema.sql пересоздаёт таблицы при каждом запуске контекста, поэтому записи прежнего контекста устарели.
+     */
+    @PostConstruct
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    /**
+     * Метод удаляет из кэша все сущности переданных классов и результаты кэшируемых запросов.
+     * @param entityClasses классы сущностей, строки которых могли быть удалены каскадно
+     */
+    public void evictCascaded(Class<?>... entityClasses) {
+        evict(entityClasses);
+        AfterCommit.run(() -> evict(entityClasses));
+    }
+
+    /**
+     * Метод удаляет из кэша вещи и отзывы после фиксации удаления пользователя:
+     * база данных удаляет их каскадно вместе с пользователем.
+     * @param event событие удаления пользователя
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(Item.class, Comment.class);
+    }
+
+    private void evict(Class<?>... entityClasses) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        for (Class<?> entityClass : entityClasses) {
+            cache.evictEntityData(entityClass);
+        }
+        cache.evictQueryRegions();
+    }
+}
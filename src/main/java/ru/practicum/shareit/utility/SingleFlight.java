@@ -0,0 +1,59 @@
+package ru.practicum.shareit.utility;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>Класс SingleFlight объединяет одновременные вызовы с одинаковым ключом: первый вызов выполняет
+ * вычисление, а остальные ожидают и получают его результат или исключение.</p>
+ * <p>Результат не кэшируется: после завершения вычисления следующий вызов с тем же ключом
+ * выполняет его заново. Возвращаемый объект общий для всех ожидавших вызовов,
+ * поэтому изменяемые результаты нужно копировать.</p>
+ * @param <K> тип ключа
+ * @param <V> тип результата
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Метод выполняет вычисление или присоединяется к уже выполняющемуся вычислению с тем же ключом.
+     * @param key ключ вычисления
+     * @param action вычисление
+     * @return результат вычисления
+     */
+    public V execute(K key, Supplier<V> action) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            V result = action.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error exception) {
+            call.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw exception;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.utility;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * <p>Класс StripedLock - набор блокировок, разделённых на полосы по значению ключа.</p>
+ * <p>Действия с одинаковым ключом выполняются последовательно, а действия с ключами из разных полос -
+ * параллельно. Количество полос фиксировано, поэтому потребление памяти не зависит от количества ключей.</p>
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+
+    public StripedLock(int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Метод callWith выполняет действие под блокировкой полосы, к которой относится ключ.
+     * @param key ключ блокировки
+     * @param action действие
+     * @param <T> тип результата действия
+     * @return результат действия
+     */
+    public <T> T callWith(int key, Supplier<T> action) {
+        ReentrantLock lock = stripes[Math.floorMod(spread(key), stripes.length)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int spread(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
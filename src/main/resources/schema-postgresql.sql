@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE ITEMS ADD COLUMN IF NOT EXISTS SEARCH_VECTOR TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('russian'::regconfig, NAME), 'A') ||
+    setweight(to_tsvector('simple'::regconfig, NAME), 'A') ||
+    setweight(to_tsvector('russian'::regconfig, DESCRIPTION), 'B') ||
+    setweight(to_tsvector('simple'::regconfig, DESCRIPTION), 'B')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_SEARCH_VECTOR ON ITEMS USING GIN (SEARCH_VECTOR);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_NAME_TRGM ON ITEMS USING GIN (UPPER(NAME) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_DESCRIPTION_TRGM ON ITEMS USING GIN (UPPER(DESCRIPTION) gin_trgm_ops);
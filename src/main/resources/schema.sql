@@ -1,3 +1,5 @@
+DROP TABLE IF EXISTS BOOKING_VIEWS;
+DROP TABLE IF EXISTS ITEM_BOOKING_SUMMARY;
 DROP TABLE IF EXISTS COMMENTS;
 DROP TABLE IF EXISTS BOOKINGS;
 DROP TABLE IF EXISTS ITEMS;
@@ -37,3 +39,41 @@ CREATE TABLE IF NOT EXISTS COMMENTS
     CONTENT CHARACTER VARYING(2048) NOT NULL,
     CREATION_DATE TIMESTAMP NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS ITEM_BOOKING_SUMMARY
+(
+    ITEM_ID INTEGER NOT NULL PRIMARY KEY REFERENCES ITEMS(ITEM_ID) ON UPDATE CASCADE ON DELETE CASCADE,
+    LAST_BOOKING_ID INTEGER,
+    LAST_BOOKER_ID INTEGER,
+    NEXT_BOOKING_ID INTEGER,
+    NEXT_BOOKER_ID INTEGER,
+    REFRESH_AT TIMESTAMP,
+    VERSION BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS BOOKING_VIEWS
+(
+    BOOKING_ID INTEGER NOT NULL PRIMARY KEY REFERENCES BOOKINGS(BOOKING_ID) ON UPDATE CASCADE ON DELETE CASCADE,
+    DATE_FROM TIMESTAMP NOT NULL,
+    DATE_TO TIMESTAMP NOT NULL,
+    STATUS VARCHAR(32) NOT NULL,
+    ITEM_ID INTEGER NOT NULL,
+    ITEM_NAME VARCHAR(255) NOT NULL,
+    ITEM_DESCRIPTION VARCHAR(512) NOT NULL,
+    ITEM_AVAILABLE BOOLEAN NOT NULL,
+    OWNER_ID INTEGER NOT NULL,
+    BOOKER_ID INTEGER NOT NULL,
+    BOOKER_NAME CHARACTER VARYING(255) NOT NULL,
+    BOOKER_EMAIL CHARACTER VARYING(255) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_STATUS ON BOOKINGS (USER_ID, STATUS, DATE_TO);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_DATES ON BOOKINGS (USER_ID, DATE_FROM, DATE_TO);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_START ON BOOKINGS (ITEM_ID, DATE_FROM);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_BOOKER ON BOOKINGS (ITEM_ID, USER_ID, STATUS, DATE_TO);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_OWNER ON ITEMS (OWNER_ID, ITEM_ID);
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_ITEM ON COMMENTS (ITEM_ID, COMMENT_ID);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_VIEWS_OWNER ON BOOKING_VIEWS (OWNER_ID, BOOKING_ID);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_VIEWS_BOOKER ON BOOKING_VIEWS (BOOKER_ID, BOOKING_ID);
+CREATE INDEX IF NOT EXISTS IDX_BOOKING_VIEWS_ITEM ON BOOKING_VIEWS (ITEM_ID);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_BOOKING_SUMMARY_REFRESH ON ITEM_BOOKING_SUMMARY (REFRESH_AT);
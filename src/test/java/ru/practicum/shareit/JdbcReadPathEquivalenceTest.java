@@ -0,0 +1,200 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.RequestComment;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Проверяет, что путь чтения JDBC записывает ответ, побайтно совпадающий с сериализацией результата пути JPA,
+ * как при вызове сервисов, так и в ответах контроллеров.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid}")
+@AutoConfigureMockMvc
+class JdbcReadPathEquivalenceTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private BookingController bookingController;
+	@Autowired
+	private ItemController itemController;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+
+	private UserDto owner;
+	private UserDto booker;
+	private ItemDto item;
+
+	@BeforeEach
+	void createBookings() {
+		owner = TestUsers.create(userService);
+		booker = TestUsers.create(userService);
+		item = createItem(owner, "Дрель", "Аккумуляторная дрель \"Бош\"");
+		ItemDto other = createItem(owner, "Лестница", "Стремянка\nна 7 ступеней");
+		LocalDateTime now = LocalDateTime.now();
+
+		BookingResponseDto past = book(item, now.minusDays(10), now.minusDays(9));
+		bookingService.update(past.getId(), owner.getId(), Status.APPROVED);
+		BookingResponseDto current = book(item, now.minusDays(1), now.plusDays(1));
+		bookingService.update(current.getId(), owner.getId(), Status.APPROVED);
+		BookingResponseDto next = book(item, now.plusDays(3), now.plusDays(4));
+		bookingService.update(next.getId(), owner.getId(), Status.APPROVED);
+		book(item, now.plusDays(5), now.plusDays(6));
+		BookingResponseDto rejected = book(other, now.plusDays(7), now.plusDays(8));
+		bookingService.update(rejected.getId(), owner.getId(), Status.REJECTED);
+
+		RequestComment comment = new RequestComment();
+		comment.setItemId(item.getId());
+		comment.setUserId(booker.getId());
+		comment.setText("Отличная дрель, «рекомендую»");
+		itemService.addComment(comment);
+	}
+
+	@Test
+	void bookerPagesMatch() throws IOException {
+		for (State state : State.values()) {
+			assertArrayEquals(
+					objectMapper.writeValueAsBytes(
+							bookingService.findAllBookingsForBooker(booker.getId(), state.name(), null, 20)),
+					write(out -> bookingService.writeAllBookingsForBooker(booker.getId(), state.name(), null, 20, out)),
+					"Ответы различаются для состояния " + state);
+		}
+	}
+
+	@Test
+	void ownerPagesMatch() throws IOException {
+		for (State state : State.values()) {
+			assertArrayEquals(
+					objectMapper.writeValueAsBytes(
+							bookingService.findAllBookingForOwner(owner.getId(), state.name(), null, 20)),
+					write(out -> bookingService.writeAllBookingForOwner(owner.getId(), state.name(), null, 20, out)),
+					"Ответы различаются для состояния " + state);
+		}
+	}
+
+	@Test
+	void cursorPagesMatch() throws IOException {
+		assertArrayEquals(
+				objectMapper.writeValueAsBytes(bookingService.findAllBookingForOwner(owner.getId(), "ALL", null, 2)),
+				write(out -> bookingService.writeAllBookingForOwner(owner.getId(), "ALL", null, 2, out)));
+		Integer cursor = bookingService.findAllBookingForOwner(owner.getId(), "ALL", null, 2).get(1).getId();
+		assertArrayEquals(
+				objectMapper.writeValueAsBytes(bookingService.findAllBookingForOwner(owner.getId(), "ALL", cursor, 2)),
+				write(out -> bookingService.writeAllBookingForOwner(owner.getId(), "ALL", cursor, 2, out)));
+	}
+
+	@Test
+	void itemMatchesForOwnerAndOtherUsers() throws IOException {
+		assertArrayEquals(
+				objectMapper.writeValueAsBytes(itemService.findById(item.getId(), owner.getId())),
+				write(out -> itemService.writeById(item.getId(), owner.getId(), out)));
+		assertArrayEquals(
+				objectMapper.writeValueAsBytes(itemService.findById(item.getId(), booker.getId())),
+				write(out -> itemService.writeById(item.getId(), booker.getId(), out)));
+	}
+
+	@Test
+	void httpResponsesMatch() throws Exception {
+		for (State state : State.values()) {
+			assertSameResponse("/bookings?state=" + state, booker.getId());
+			assertSameResponse("/bookings/owner?state=" + state, owner.getId());
+		}
+		assertSameResponse("/bookings/owner?size=2", owner.getId());
+		assertSameResponse("/items/" + item.getId(), owner.getId());
+		assertSameResponse("/items/" + item.getId(), booker.getId());
+		assertSameResponse("/items/" + Integer.MAX_VALUE, owner.getId());
+		assertSameResponse("/bookings?state=UNKNOWN", booker.getId());
+	}
+
+	@AfterEach
+	void restoreReadPath() {
+		useJdbcReadPath(false);
+	}
+
+	private void assertSameResponse(String uri, Integer userId) throws Exception {
+		useJdbcReadPath(false);
+		MockHttpServletResponse jpa = perform(uri, userId);
+		useJdbcReadPath(true);
+		MockHttpServletResponse jdbc = perform(uri, userId);
+		assertEquals(jpa.getStatus(), jdbc.getStatus(), "Коды ответа различаются для " + uri);
+		assertEquals(jpa.getContentType(), jdbc.getContentType(), "Типы ответа различаются для " + uri);
+		assertArrayEquals(jpa.getContentAsByteArray(), jdbc.getContentAsByteArray(), "Ответы различаются для " + uri);
+	}
+
+	private MockHttpServletResponse perform(String uri, Integer userId) throws Exception {
+		MvcResult result = mockMvc.perform(get(uri).header("X-Sharer-User-Id", userId)).andReturn();
+		if (result.getRequest().isAsyncStarted()) {
+			result = mockMvc.perform(asyncDispatch(result)).andReturn();
+		}
+		return result.getResponse();
+	}
+
+	private void useJdbcReadPath(boolean enabled) {
+		ReflectionTestUtils.setField(bookingController, "jdbcReadPath", enabled);
+		ReflectionTestUtils.setField(itemController, "jdbcReadPath", enabled);
+	}
+
+	private byte[] write(JsonWriter writer) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer.write(out);
+		return out.toByteArray();
+	}
+
+	private BookingResponseDto book(ItemDto bookedItem, LocalDateTime start, LocalDateTime end) {
+		return bookingService.save(BookingRequestDto.builder()
+				.itemId(bookedItem.getId())
+				.userId(booker.getId())
+				.status(Status.WAITING)
+				.start(start)
+				.end(end)
+				.build());
+	}
+
+	private ItemDto createItem(UserDto itemOwner, String name, String description) {
+		return itemService.saveItem(ItemDto.builder()
+				.ownerId(itemOwner.getId())
+				.name(name)
+				.description(description)
+				.available(true)
+				.build(), itemOwner.getId());
+	}
+
+	@FunctionalInterface
+	private interface JsonWriter {
+		void write(ByteArrayOutputStream out) throws IOException;
+	}
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.Role;
+import ru.practicum.shareit.booking.State;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repository.db.BookingDbRepository;
+import ru.practicum.shareit.booking.repository.db.BookingViewDbRepository;
+import ru.practicum.shareit.comment.repository.db.CommentDbRepository;
+import ru.practicum.shareit.item.repository.db.ItemDbRepository;
+import ru.practicum.shareit.user.repository.db.UserDbRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Проверяет, что запросы репозиториев выполняются по индексам, а не полным просмотром таблиц.
+ * Полная выгрузка интервалов для календаря и поиск по подстроке намеренно не проверяются.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+		"ru.practicum.shareit.RepositoryQueryPlanTest$CapturingInspector")
+class RepositoryQueryPlanTest {
+	private static final Pageable PAGE = PageRequest.of(0, 20);
+	private static final LocalDateTime NOW = LocalDateTime.now();
+
+	@Autowired
+	private DataSource dataSource;
+	@Autowired
+	private BookingDbRepository bookingRepository;
+	@Autowired
+	private BookingViewDbRepository bookingViewRepository;
+	@Autowired
+	private ItemDbRepository itemRepository;
+	@Autowired
+	private CommentDbRepository commentRepository;
+	@Autowired
+	private UserDbRepository userRepository;
+
+	@BeforeEach
+	void clearStatements() {
+		CapturingInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	void bookerQueriesUseIndexes() throws SQLException {
+		for (State state : State.values()) {
+			bookingViewRepository.findAllByRole(Role.BOOKER, 1, state, NOW, null, 20);
+		}
+		assertNoTableScans();
+	}
+
+	@Test
+	void ownerQueriesUseIndexes() throws SQLException {
+		for (State state : State.values()) {
+			bookingViewRepository.findAllByRole(Role.OWNER, 1, state, NOW, null, 20);
+		}
+		assertNoTableScans();
+	}
+
+	@Test
+	void itemQueriesUseIndexes() throws SQLException {
+		bookingRepository.existsFinishedBooking(1, 1, Status.APPROVED, NOW);
+		itemRepository.findViewsByOwnerId(1, 0, PAGE);
+		itemRepository.findViewById(1);
+		bookingViewRepository.findRowById(1);
+		bookingRepository.findItemIdById(1);
+		commentRepository.findAllByItemIdOrderById(1);
+		userRepository.findAllByIdGreaterThanOrderByIdAsc(0, PAGE);
+		assertNoTableScans();
+	}
+
+	private void assertNoTableScans() throws SQLException {
+		List<String> statements = new ArrayList<>(CapturingInspector.STATEMENTS);
+		assertFalse(statements.isEmpty(), "Запросы к базе данных не были перехвачены");
+		try (Connection connection = dataSource.getConnection()) {
+			for (String sql : statements) {
+				String plan = explain(connection, sql);
+				assertFalse(plan.contains(".tableScan"), "Запрос выполняется полным просмотром таблицы:\n" + plan);
+			}
+		}
+	}
+
+	private String explain(Connection connection, String sql) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			int parameters = statement.getParameterMetaData().getParameterCount();
+			for (int i = 1; i <= parameters; i++) {
+				statement.setObject(i, null);
+			}
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					plan.append(resultSet.getString(1));
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	public static class CapturingInspector implements StatementInspector {
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			if (sql.trim().toLowerCase().startsWith("select")) {
+				STATEMENTS.add(sql);
+			}
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.UUID;
+
+/**
+ * Создаёт пользователей с уникальными именем и адресом электронной почты для тестов и бенчмарков.
+ */
+public final class TestUsers {
+
+	private TestUsers() {
+	}
+
+	public static UserDto create(UserService userService) {
+		String login = UUID.randomUUID().toString();
+		return userService.saveUser(UserDto.builder()
+				.name(login)
+				.email(login + "@shareit.ru")
+				.build());
+	}
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class BookingCalendarTest {
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void deletedBookerPeriodIsFreed() {
+		ItemDto item = createItem(TestUsers.create(userService));
+		UserDto booker = TestUsers.create(userService);
+		LocalDateTime start = LocalDateTime.now().plusDays(3);
+		bookingService.save(request(item.getId(), booker.getId(), start));
+
+		userService.deleteUser(booker.getId());
+
+		UserDto next = TestUsers.create(userService);
+		assertEquals(next.getId(), bookingService.save(request(item.getId(), next.getId(), start)).getBooker().getId());
+	}
+
+	@Test
+	void rolledBackBookerDeleteKeepsPeriod() {
+		ItemDto item = createItem(TestUsers.create(userService));
+		UserDto booker = TestUsers.create(userService);
+		LocalDateTime start = LocalDateTime.now().plusDays(3);
+		bookingService.save(request(item.getId(), booker.getId(), start));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			userService.deleteUser(booker.getId());
+			status.setRollbackOnly();
+		});
+
+		UserDto next = TestUsers.create(userService);
+		assertThrows(ValidationException.class,
+				() -> bookingService.save(request(item.getId(), next.getId(), start)));
+	}
+
+	@Test
+	void overlapShorterThanSecondIsRejected() {
+		ItemDto item = createItem(TestUsers.create(userService));
+		LocalDateTime start = LocalDateTime.now().plusDays(3).withNano(0);
+		bookingService.save(request(item.getId(), TestUsers.create(userService).getId(),
+				start, start.plusNanos(500_000_000)));
+
+		assertThrows(ValidationException.class, () -> bookingService.save(request(item.getId(),
+				TestUsers.create(userService).getId(), start.plusNanos(400_000_000), start.plusSeconds(1))));
+		UserDto next = TestUsers.create(userService);
+		assertEquals(next.getId(), bookingService.save(request(item.getId(), next.getId(),
+				start.plusNanos(500_000_000), start.plusSeconds(1))).getBooker().getId());
+	}
+
+	private ItemDto createItem(UserDto owner) {
+		return itemService.saveItem(ItemDto.builder()
+				.name("Палатка")
+				.description("Трёхместная палатка")
+				.ownerId(owner.getId())
+				.available(true)
+				.build(), owner.getId());
+	}
+
+	private BookingRequestDto request(Integer itemId, Integer bookerId, LocalDateTime start) {
+		return request(itemId, bookerId, start, start.plusHours(2));
+	}
+
+	private BookingRequestDto request(Integer itemId, Integer bookerId, LocalDateTime start, LocalDateTime end) {
+		return BookingRequestDto.builder()
+				.itemId(itemId)
+				.userId(bookerId)
+				.status(Status.WAITING)
+				.start(start)
+				.end(end)
+				.build();
+	}
+}
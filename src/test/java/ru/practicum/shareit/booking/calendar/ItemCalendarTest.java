@@ -0,0 +1,142 @@
+package ru.practicum.shareit.booking.calendar;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCalendarTest {
+
+	@Test
+	void adjacentIntervalsDoNotOverlap() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 20);
+
+		assertFalse(calendar.overlaps(0, 10));
+		assertFalse(calendar.overlaps(20, 30));
+		assertTrue(calendar.overlaps(19, 30));
+		assertTrue(calendar.overlaps(0, 11));
+	}
+
+	@Test
+	void containedAndContainingIntervalsOverlap() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 100);
+		calendar.add(2, 20, 30);
+
+		assertTrue(calendar.overlaps(40, 50));
+		assertTrue(calendar.overlaps(0, 200));
+		assertTrue(calendar.overlaps(10, 100));
+	}
+
+	@Test
+	void removingLongIntervalFreesPeriodCoveredOnlyByIt() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 100);
+		calendar.add(2, 20, 30);
+
+		calendar.remove(1);
+
+		assertFalse(calendar.overlaps(40, 50));
+		assertTrue(calendar.overlaps(25, 26));
+		calendar.remove(2);
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	void emptyIntervalsNeverOverlapAndAreNotStored() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 20);
+
+		assertFalse(calendar.overlaps(15, 15));
+		assertFalse(calendar.overlaps(20, 10));
+
+		calendar.add(2, 50, 50);
+		assertFalse(calendar.overlaps(40, 60));
+		assertEquals(1, calendar.freeSlots(40, 60).size());
+
+		calendar.add(1, 30, 30);
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	void addingSameBookingAgainMovesInterval() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 20);
+		calendar.add(1, 30, 40);
+
+		assertFalse(calendar.overlaps(10, 20));
+		assertTrue(calendar.overlaps(35, 36));
+	}
+
+	@Test
+	void freeSlotsSkipAdjacentContainedAndOverlappingIntervals() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 20);
+		calendar.add(2, 20, 30);
+		calendar.add(3, 40, 80);
+		calendar.add(4, 50, 60);
+		calendar.add(5, 70, 90);
+
+		List<long[]> slots = calendar.freeSlots(0, 100);
+
+		assertEquals(3, slots.size());
+		assertArrayEquals(new long[]{0, 10}, slots.get(0));
+		assertArrayEquals(new long[]{30, 40}, slots.get(1));
+		assertArrayEquals(new long[]{90, 100}, slots.get(2));
+		assertTrue(calendar.freeSlots(45, 85).isEmpty());
+		assertTrue(calendar.freeSlots(50, 50).isEmpty());
+	}
+
+	@Test
+	void pruneDropsEndedIntervalsAndKeepsOthers() {
+		ItemCalendar calendar = new ItemCalendar();
+		calendar.add(1, 10, 100);
+		calendar.add(2, 20, 30);
+		calendar.add(3, 40, 50);
+
+		calendar.prune(30);
+
+		assertTrue(calendar.overlaps(60, 70));
+		calendar.remove(1);
+		assertFalse(calendar.overlaps(20, 30));
+		assertTrue(calendar.overlaps(45, 46));
+		calendar.prune(100);
+		assertTrue(calendar.isEmpty());
+	}
+
+	@Test
+	void overlapsMatchesLinearScanUnderRandomOperations() {
+		Random random = new Random(11);
+		ItemCalendar calendar = new ItemCalendar();
+		long[][] intervals = new long[200][];
+		for (int i = 0; i < 20_000; i++) {
+			int bookingId = random.nextInt(intervals.length);
+			if (random.nextInt(4) == 0) {
+				calendar.remove(bookingId);
+				intervals[bookingId] = null;
+			} else {
+				long start = random.nextInt(10_000);
+				long end = start + random.nextInt(200);
+				calendar.add(bookingId, start, end);
+				intervals[bookingId] = start < end ? new long[]{start, end} : null;
+			}
+			long from = random.nextInt(10_000);
+			long to = from + random.nextInt(200);
+			boolean expected = false;
+			if (from == to) {
+				assertFalse(calendar.overlaps(from, to));
+				continue;
+			}
+			for (long[] interval : intervals) {
+				expected |= interval != null && interval[0] < to && from < interval[1];
+			}
+			assertEquals(expected, calendar.overlaps(from, to));
+		}
+	}
+}
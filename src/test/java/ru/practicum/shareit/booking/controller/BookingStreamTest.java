@@ -0,0 +1,144 @@
+package ru.practicum.shareit.booking.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid}")
+@AutoConfigureMockMvc
+class BookingStreamTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private BookingService bookingService;
+
+	private UserDto owner;
+	private UserDto booker;
+	private List<BookingResponseDto> bookings;
+
+	@BeforeEach
+	void createBookings() {
+		owner = TestUsers.create(userService);
+		booker = TestUsers.create(userService);
+		ItemDto item = itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Самокат")
+				.description("Складной самокат")
+				.available(true)
+				.build(), owner.getId());
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+		bookings = List.of(book(item, start), book(item, start.plusDays(2)), book(item, start.plusDays(4)));
+	}
+
+	@Test
+	void streamWritesEveryBookingOnItsOwnLine() throws Exception {
+		assertEquals(ids(bookings), streamedIds("/bookings/stream", booker));
+		assertEquals(ids(bookings), streamedIds("/bookings/owner/stream", owner));
+	}
+
+	@Test
+	void invalidStateIsRejectedBeforeStreaming() throws Exception {
+		mockMvc.perform(get("/bookings/stream?state=UNKNOWN").header("X-Sharer-User-Id", booker.getId()))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void pagesAreResolvedAgainstPassedMoment() {
+		LocalDateTime during = bookings.get(0).getStart().plusHours(1);
+
+		assertEquals(List.of(bookings.get(0).getId()), ids(bookingService.pageAllBookingsForBooker(
+				booker.getId(), "CURRENT", during, 10).apply(null)));
+		assertEquals(List.of(bookings.get(0).getId()), ids(bookingService.pageAllBookingForOwner(
+				owner.getId(), "CURRENT", during, 10).apply(null)));
+		assertEquals(List.of(), ids(bookingService.findAllBookingsForBooker(booker.getId(), "CURRENT", null, 10)));
+	}
+
+	@Test
+	void pagesFollowCursorWithoutRepeatingBookings() {
+		List<BookingResponseDto> firstPage = bookingService.pageAllBookingsForBooker(
+				booker.getId(), "ALL", LocalDateTime.now(), 2).apply(null);
+		List<BookingResponseDto> secondPage = bookingService.pageAllBookingsForBooker(
+				booker.getId(), "ALL", LocalDateTime.now(), 2).apply(firstPage.get(1).getId());
+
+		assertEquals(2, firstPage.size());
+		assertEquals(ids(bookings), ids(Stream.concat(firstPage.stream(), secondPage.stream())
+				.collect(Collectors.toList())));
+	}
+
+	private List<Integer> streamedIds(String uri, UserDto user) throws Exception {
+		MvcResult result = mockMvc.perform(get(uri).header("X-Sharer-User-Id", user.getId()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+				.andReturn()
+				.getResponse()
+				.getContentAsString(StandardCharsets.UTF_8);
+		return body.lines()
+				.map(this::readId)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+
+	private Integer readId(String line) {
+		try {
+			return objectMapper.readTree(line).get("id").asInt();
+		} catch (JsonProcessingException exception) {
+			throw new IllegalStateException(exception);
+		}
+	}
+
+	private BookingResponseDto book(ItemDto item, LocalDateTime start) {
+		return bookingService.save(BookingRequestDto.builder()
+				.itemId(item.getId())
+				.userId(booker.getId())
+				.status(Status.WAITING)
+				.start(start)
+				.end(start.plusDays(1))
+				.build());
+	}
+
+	private static List<Integer> ids(List<BookingResponseDto> bookings) {
+		return bookings.stream()
+				.map(BookingResponseDto::getId)
+				.sorted()
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookingServiceConcurrencyTest {
+	private static final int THREADS = 32;
+
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void samePeriodIsBookedOnlyOnce() throws Exception {
+		UserDto owner = TestUsers.create(userService);
+		ItemDto item = createItem(owner);
+		List<UserDto> bookers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			bookers.add(TestUsers.create(userService));
+		}
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+		List<Callable<BookingResponseDto>> tasks = new ArrayList<>();
+		for (UserDto booker : bookers) {
+			tasks.add(() -> bookingService.save(request(item.getId(), booker.getId(), start)));
+		}
+		List<Future<BookingResponseDto>> results = runConcurrently(tasks);
+
+		int booked = 0;
+		int rejected = 0;
+		for (Future<BookingResponseDto> result : results) {
+			try {
+				result.get();
+				booked++;
+			} catch (ExecutionException exception) {
+				// остальные запросы должны получить отказ из-за пересечения периодов
+				assertInstanceOf(ValidationException.class, exception.getCause());
+				rejected++;
+			}
+		}
+		assertEquals(1, booked);
+		assertEquals(THREADS, booked + rejected);
+	}
+
+	@Test
+	void differentItemsAreBookedIndependently() throws Exception {
+		UserDto owner = TestUsers.create(userService);
+		List<ItemDto> items = new ArrayList<>();
+		List<UserDto> bookers = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			items.add(createItem(owner));
+			bookers.add(TestUsers.create(userService));
+		}
+		LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+		List<Callable<BookingResponseDto>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Integer itemId = items.get(i).getId();
+			Integer bookerId = bookers.get(i).getId();
+			tasks.add(() -> bookingService.save(request(itemId, bookerId, start)));
+		}
+		List<Future<BookingResponseDto>> results = runConcurrently(tasks);
+
+		for (int i = 0; i < THREADS; i++) {
+			BookingResponseDto booking = results.get(i).get();
+			assertEquals(items.get(i).getId(), booking.getItem().getId());
+			assertEquals(bookers.get(i).getId(), booking.getBooker().getId());
+			assertEquals(Status.WAITING, booking.getStatus());
+		}
+	}
+
+	private List<Future<BookingResponseDto>> runConcurrently(List<Callable<BookingResponseDto>> tasks)
+			throws InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+		CountDownLatch startSignal = new CountDownLatch(1);
+		try {
+			List<Future<BookingResponseDto>> results = new ArrayList<>();
+			for (Callable<BookingResponseDto> task : tasks) {
+				results.add(executor.submit(() -> {
+					startSignal.await();
+					return task.call();
+				}));
+			}
+			startSignal.countDown();
+			executor.shutdown();
+			assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private ItemDto createItem(UserDto owner) {
+		return itemService.saveItem(ItemDto.builder()
+				.name("Дрель")
+				.description("Аккумуляторная дрель")
+				.ownerId(owner.getId())
+				.available(true)
+				.build(), owner.getId());
+	}
+
+	private BookingRequestDto request(Integer itemId, Integer bookerId, LocalDateTime start) {
+		return BookingRequestDto.builder()
+				.itemId(itemId)
+				.userId(bookerId)
+				.status(Status.WAITING)
+				.start(start)
+				.end(start.plusHours(2))
+				.build();
+	}
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest
+class BookingViewSyncTest {
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private BookingService bookingService;
+
+	@Test
+	void bookingListsFollowBookingItemAndBookerChanges() {
+		UserDto owner = TestUsers.create(userService);
+		UserDto booker = TestUsers.create(userService);
+		ItemDto item = itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Велосипед")
+				.description("Горный велосипед")
+				.available(true)
+				.build(), owner.getId());
+		BookingResponseDto booking = bookingService.save(BookingRequestDto.builder()
+				.itemId(item.getId())
+				.userId(booker.getId())
+				.status(Status.WAITING)
+				.start(LocalDateTime.now().plusDays(1))
+				.end(LocalDateTime.now().plusDays(2))
+				.build());
+
+		bookingService.update(booking.getId(), owner.getId(), Status.APPROVED);
+		itemService.updateItem(ItemDto.builder()
+				.id(item.getId())
+				.ownerId(owner.getId())
+				.name("Шоссейный велосипед")
+				.available(false)
+				.build(), owner.getId());
+		userService.updateUser(UserDto.builder()
+				.id(booker.getId())
+				.name("Арендатор")
+				.build());
+
+		List<BookingResponseDto> ownerBookings = bookingService.findAllBookingForOwner(owner.getId(), "ALL", null, 10);
+		List<BookingResponseDto> bookerBookings = bookingService.findAllBookingsForBooker(booker.getId(), "FUTURE", null, 10);
+		for (List<BookingResponseDto> bookings : List.of(ownerBookings, bookerBookings)) {
+			assertEquals(1, bookings.size());
+			BookingResponseDto found = bookings.get(0);
+			assertEquals(Status.APPROVED, found.getStatus());
+			assertEquals("Шоссейный велосипед", found.getItem().getName());
+			assertEquals("Горный велосипед", found.getItem().getDescription());
+			assertFalse(found.getItem().getAvailable());
+			assertEquals("Арендатор", found.getBooker().getName());
+			assertEquals(booker.getEmail(), found.getBooker().getEmail());
+		}
+		assertEquals("Арендатор", bookingService.findBookingById(booking.getId(), owner.getId()).getBooker().getName());
+	}
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.jdbc.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ItemBookingSummaryServiceTest {
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private ItemBookingSummaryService summaryService;
+	@Autowired
+	private ItemBookingSummaryRepository summaryRepository;
+
+	private UserDto owner;
+	private UserDto booker;
+	private ItemDto item;
+
+	@BeforeEach
+	void createItem() {
+		owner = TestUsers.create(userService);
+		booker = TestUsers.create(userService);
+		item = itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Байдарка")
+				.description("Двухместная байдарка")
+				.available(true)
+				.build(), owner.getId());
+	}
+
+	@Test
+	void summaryFollowsBookingWritesAndRollsNextIntoLast() throws Exception {
+		assertNull(itemService.findById(item.getId(), owner.getId()).getLastBooking());
+
+		LocalDateTime now = LocalDateTime.now();
+		BookingResponseDto past = book(now.minusDays(3), now.minusDays(2));
+		BookingResponseDto soon = book(now.plusSeconds(1), now.plusHours(1));
+		BookingResponseDto later = book(now.plusDays(1), now.plusDays(2));
+
+		ItemDto beforeStart = itemService.findById(item.getId(), owner.getId());
+		assertEquals(past.getId(), beforeStart.getLastBooking().getId());
+		assertEquals(soon.getId(), beforeStart.getNextBooking().getId());
+		assertEquals(booker.getId(), beforeStart.getNextBooking().getBookerId());
+
+		Thread.sleep(1500);
+		summaryService.sweep();
+		ItemBookingSummary swept = summaryRepository.findAllByItemIdIn(List.of(item.getId())).get(0);
+		assertFalse(swept.isStale(LocalDateTime.now()));
+		assertEquals(soon.getId(), swept.getLastBookingId());
+		assertEquals(later.getId(), swept.getNextBookingId());
+
+		ItemDto afterStart = itemService.findById(item.getId(), owner.getId());
+		assertEquals(soon.getId(), afterStart.getLastBooking().getId());
+		assertEquals(later.getId(), afterStart.getNextBooking().getId());
+	}
+
+	@Test
+	void refreshStartedBeforeBookingChangeIsNotWritten() {
+		ItemBookingSummary read = summaryRepository.findAllByItemIdIn(List.of(item.getId())).get(0);
+		summaryService.invalidate(item.getId());
+
+		assertFalse(summaryRepository.update(read));
+		assertTrue(summaryRepository.findAllByItemIdIn(List.of(item.getId())).get(0)
+				.isStale(LocalDateTime.now()));
+	}
+
+	private BookingResponseDto book(LocalDateTime start, LocalDateTime end) {
+		BookingResponseDto booking = bookingService.save(BookingRequestDto.builder()
+				.itemId(item.getId())
+				.userId(booker.getId())
+				.status(Status.WAITING)
+				.start(start)
+				.end(end)
+				.build());
+		return bookingService.update(booking.getId(), owner.getId(), Status.APPROVED);
+	}
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:${random.uuid}",
+		"spring.datasource.hikari.maximum-pool-size=2",
+		"spring.datasource.hikari.connection-timeout=1000",
+		"shareit.warm-up.enabled=false",
+		"shareit.fan-out.threads=4"
+})
+class ItemFanOutPoolTest {
+	private static final int THREADS = 16;
+	private static final int REQUESTS_PER_THREAD = 5;
+
+	@LocalServerPort
+	private int port;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void concurrentItemRequestsDoNotExhaustConnectionPool() throws Exception {
+		UserDto owner = TestUsers.create(userService);
+		UserDto viewer = TestUsers.create(userService);
+		List<Integer> itemIds = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			itemIds.add(createItem(owner).getId());
+		}
+		HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+		List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Integer itemId = itemIds.get(i);
+			Integer userId = i % 2 == 0 ? owner.getId() : viewer.getId();
+			tasks.add(() -> {
+				int succeeded = 0;
+				for (int j = 0; j < REQUESTS_PER_THREAD; j++) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/" + itemId))
+							.header("X-Sharer-User-Id", userId.toString())
+							.timeout(Duration.ofSeconds(30))
+							.GET()
+							.build();
+					if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						succeeded++;
+					}
+				}
+				return succeeded;
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		int succeeded = 0;
+		try {
+			for (Future<Integer> result : executor.invokeAll(tasks)) {
+				succeeded += result.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(THREADS * REQUESTS_PER_THREAD, succeeded);
+	}
+
+	private ItemDto createItem(UserDto owner) {
+		return itemService.saveItem(ItemDto.builder()
+				.name("Удочка")
+				.description("Телескопическая удочка")
+				.ownerId(owner.getId())
+				.available(true)
+				.build(), owner.getId());
+	}
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.ownership.ItemOwnershipIndex;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemIndexConsistencyTest {
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private ItemSearchEngine searchEngine;
+	@Autowired
+	private ItemOwnershipIndex ownershipIndex;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void rolledBackItemWritesDoNotChangeSearchIndex() {
+		String word = uniqueWord();
+		UserDto owner = TestUsers.create(userService);
+		ItemDto item = createItem(owner, word);
+
+		ItemDto rolledBack = transactionTemplate.execute(status -> {
+			ItemDto created = createItem(owner, word);
+			itemService.deleteItem(item.getId(), owner.getId());
+			status.setRollbackOnly();
+			return created;
+		});
+
+		assertEquals(List.of(item.getId()), searchEngine.findIds(word, 0, 10));
+		assertEquals(owner.getId(), ownershipIndex.ownerOf(item.getId()));
+		assertEquals(ItemOwnershipIndex.NO_OWNER, ownershipIndex.ownerOf(rolledBack.getId()));
+	}
+
+	@Test
+	void rolledBackOwnerDeleteKeepsOwnership() {
+		UserDto owner = TestUsers.create(userService);
+		ItemDto item = createItem(owner, uniqueWord());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			userService.deleteUser(owner.getId());
+			status.setRollbackOnly();
+		});
+
+		assertEquals(owner.getId(), ownershipIndex.ownerOf(item.getId()));
+		userService.deleteUser(owner.getId());
+		assertEquals(ItemOwnershipIndex.NO_OWNER, ownershipIndex.ownerOf(item.getId()));
+	}
+
+	@Test
+	void deletedOwnerItemsLeaveSearchIndex() {
+		String word = uniqueWord();
+		UserDto owner = TestUsers.create(userService);
+		createItem(owner, word);
+		createItem(owner, word);
+		ItemDto kept = createItem(TestUsers.create(userService), word);
+
+		userService.deleteUser(owner.getId());
+
+		assertEquals(List.of(kept.getId()), searchEngine.findIds(word, 0, 10));
+	}
+
+	private ItemDto createItem(UserDto owner, String word) {
+		return itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Лодка " + word)
+				.description("Надувная лодка")
+				.available(true)
+				.build(), owner.getId());
+	}
+
+	private static String uniqueWord() {
+		return "лодка" + UUID.randomUUID().toString().substring(0, 8);
+	}
+}
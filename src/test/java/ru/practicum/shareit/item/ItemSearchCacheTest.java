@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ItemSearchCacheTest {
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void unrelatedChangesKeepEntriesAndMatchingChangesEvictThem() {
+		String word = "перфоратор" + UUID.randomUUID().toString().substring(0, 8);
+		UserDto owner = TestUsers.create(userService);
+		ItemDto matching = createItem(owner, "Мощный " + word);
+		ItemDto unrelated = createItem(owner, "Отвёртка");
+
+		assertEquals(List.of(matching.getId()), search(word.toUpperCase()));
+		double hits = hits();
+		search(word);
+		assertEquals(hits + 1, hits());
+
+		unrelated.setDescription("Крестовая отвёртка");
+		itemService.updateItem(unrelated, owner.getId());
+		search(word);
+		assertEquals(hits + 2, hits());
+
+		matching.setAvailable(false);
+		itemService.updateItem(matching, owner.getId());
+		assertEquals(List.of(), search(word));
+		assertEquals(hits + 2, hits());
+	}
+
+	@Test
+	void pageCachedBeforeCommitIsEvictedAfterCommit() {
+		String word = "перфоратор" + UUID.randomUUID().toString().substring(0, 8);
+		UserDto owner = TestUsers.create(userService);
+
+		ItemDto created = transactionTemplate.execute(status -> {
+			ItemDto item = createItem(owner, "Мощный " + word);
+			assertEquals(List.of(), search(word));
+			return item;
+		});
+
+		assertEquals(List.of(created.getId()), search(word));
+	}
+
+	@Test
+	void deletedOwnerItemsAreEvicted() {
+		String word = "перфоратор" + UUID.randomUUID().toString().substring(0, 8);
+		UserDto owner = TestUsers.create(userService);
+		createItem(owner, "Мощный " + word);
+		search(word);
+		double hits = hits();
+
+		userService.deleteUser(owner.getId());
+
+		assertEquals(List.of(), search(word));
+		assertEquals(hits, hits());
+	}
+
+	private List<Integer> search(String text) {
+		return itemService.seekItem(text, null, 20).stream()
+				.map(ItemDto::getId)
+				.collect(Collectors.toList());
+	}
+
+	private double hits() {
+		return meterRegistry.get("cache.gets")
+				.tag("cache", "item-search")
+				.tag("result", "hit")
+				.functionCounter()
+				.count();
+	}
+
+	private ItemDto createItem(UserDto owner, String description) {
+		return itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Инструмент")
+				.description(description)
+				.available(true)
+				.build(), owner.getId());
+	}
+}
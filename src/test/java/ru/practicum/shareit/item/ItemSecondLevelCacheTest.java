@@ -0,0 +1,202 @@
+package ru.practicum.shareit.item;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comment.dto.RequestComment;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Проверяет, что повторное чтение вещи арендатором не выполняет ни одного SQL-запроса. Запросы считаются
+ * на уровне DataSource, поэтому учитываются и запросы Hibernate, и запросы JdbcTemplate из любых потоков.
+ * Владелец при каждом чтении по-прежнему читает сводку бронирований item_booking_summary: она не кэшируется,
+ * потому что последнее и следующее бронирование зависят от текущего момента.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:${random.uuid}")
+@AutoConfigureMockMvc
+class ItemSecondLevelCacheTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private BookingService bookingService;
+
+	private UserDto owner;
+	private UserDto booker;
+	private ItemDto item;
+
+	@BeforeEach
+	void createCommentedItem() {
+		owner = TestUsers.create(userService);
+		booker = TestUsers.create(userService);
+		item = itemService.saveItem(ItemDto.builder()
+				.ownerId(owner.getId())
+				.name("Палатка")
+				.description("Трёхместная палатка")
+				.available(true)
+				.build(), owner.getId());
+		BookingResponseDto booking = bookingService.save(BookingRequestDto.builder()
+				.itemId(item.getId())
+				.userId(booker.getId())
+				.status(Status.WAITING)
+				.start(LocalDateTime.now().minusDays(5))
+				.end(LocalDateTime.now().minusDays(4))
+				.build());
+		bookingService.update(booking.getId(), owner.getId(), Status.APPROVED);
+		RequestComment comment = new RequestComment();
+		comment.setItemId(item.getId());
+		comment.setUserId(booker.getId());
+		comment.setText("Не промокает");
+		itemService.addComment(comment);
+	}
+
+	@AfterEach
+	void stopRecording() {
+		StatementRecorder.stop();
+	}
+
+	@Test
+	void repeatedItemReadsDoNotHitJdbc() throws Exception {
+		requestItem(booker);
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		StatementRecorder.start();
+
+		requestItem(booker);
+		requestItem(booker);
+
+		assertEquals(List.of(), StatementRecorder.stop());
+		assertTrue(statistics.getQueryCacheHitCount() >= 4);
+		assertTrue(statistics.getDomainDataRegionStatistics("comments").getHitCount() >= 2);
+		assertTrue(statistics.getDomainDataRegionStatistics("users").getHitCount() >= 2);
+	}
+
+	@Test
+	void repeatedOwnerReadsQueryOnlyBookingSummary() throws Exception {
+		requestItem(owner);
+		StatementRecorder.start();
+
+		requestItem(owner);
+		requestItem(owner);
+
+		List<String> statements = StatementRecorder.stop();
+		assertEquals(2, statements.size(), statements::toString);
+		assertTrue(statements.stream().allMatch(sql -> sql.contains("from item_booking_summary")),
+				statements::toString);
+	}
+
+	private void requestItem(UserDto user) throws Exception {
+		MvcResult result = mockMvc.perform(get("/items/{id}", item.getId())
+						.header("X-Sharer-User-Id", user.getId()))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.name").value("Палатка"))
+				.andExpect(jsonPath("$.comments[0].authorName").value(booker.getName()));
+	}
+
+	/**
+	 * Оборачивает DataSource приложения и записывает SQL всех подготовленных и обычных запросов,
+	 * выполненных между start и stop. Запросы фоновых задач по расписанию не записываются.
+	 */
+	@TestConfiguration
+	static class StatementRecorder {
+		private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+		private static volatile boolean recording;
+
+		static void start() {
+			STATEMENTS.clear();
+			recording = true;
+		}
+
+		static List<String> stop() {
+			recording = false;
+			return List.copyOf(STATEMENTS);
+		}
+
+		@Bean
+		static BeanPostProcessor statementRecordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource)) {
+						return bean;
+					}
+					return new DelegatingDataSource((DataSource) bean) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							return recording(super.getConnection());
+						}
+
+						@Override
+						public Connection getConnection(String username, String password) throws SQLException {
+							return recording(super.getConnection(username, password));
+						}
+					};
+				}
+			};
+		}
+
+		private static Connection recording(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+						if (recording && !Thread.currentThread().getName().startsWith("scheduling")) {
+							String name = method.getName();
+							if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+								STATEMENTS.add((String) args[0]);
+							} else if (name.equals("createStatement")) {
+								STATEMENTS.add(name);
+							}
+						}
+						try {
+							return method.invoke(connection, args);
+						} catch (InvocationTargetException exception) {
+							throw exception.getCause();
+						}
+					});
+		}
+	}
+}
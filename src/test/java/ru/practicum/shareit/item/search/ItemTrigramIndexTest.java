@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemTrigramIndexTest {
+	private ItemTrigramIndex index;
+
+	@BeforeEach
+	void createIndex() {
+		index = new ItemTrigramIndex(null);
+		index.index(item(1, "Дрель", "Ударная дрель с набором свёрл", true));
+		index.index(item(2, "Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", true));
+		index.index(item(3, "Палатка", "Трёхместная палатка", true));
+		index.index(item(4, "Дрель", "Сломанная дрель", false));
+	}
+
+	@Test
+	void findsSubstringsOfNameAndDescriptionIgnoringCase() {
+		assertEquals(List.of(1, 2), index.findIds("ДРЕЛ", 0, 10));
+		assertEquals(List.of(2), index.findIds("рель-шуру", 0, 10));
+		assertEquals(List.of(3), index.findIds("трёхместная ПАЛАТКА", 0, 10));
+		assertEquals(List.of(), index.findIds("перфоратор", 0, 10));
+	}
+
+	@Test
+	void queriesShorterThanTrigramUseShortGrams() {
+		assertEquals(List.of(1, 2), index.findIds("др", 0, 10));
+		assertEquals(List.of(1, 2, 3), index.findIds("а", 0, 10));
+		assertEquals(List.of(2, 3), index.findIds("а", 1, 10));
+		assertEquals(List.of(), index.findIds("щ", 0, 10));
+		assertEquals(List.of(), index.findIds("ьс", 0, 10));
+		assertEquals(List.of(1, 2, 3), index.findIds("", 0, 10));
+	}
+
+	@Test
+	void pagesFollowCursorAndLimit() {
+		assertEquals(List.of(1), index.findIds("дрель", 0, 1));
+		assertEquals(List.of(2), index.findIds("дрель", 1, 1));
+		assertEquals(List.of(), index.findIds("дрель", 2, 1));
+	}
+
+	@Test
+	void updatedAndRemovedItemsLeaveNoStalePostings() {
+		index.index(item(1, "Перфоратор", "Мощный перфоратор", true));
+		assertEquals(List.of(2), index.findIds("дрель", 0, 10));
+		assertEquals(List.of(1), index.findIds("перфоратор", 0, 10));
+
+		index.index(item(2, "Шуруповёрт", "Аккумуляторная дрель-шуруповёрт", false));
+		assertEquals(List.of(), index.findIds("дрель", 0, 10));
+
+		index.index(item(4, "Дрель", "Отремонтированная дрель", true));
+		assertEquals(List.of(4), index.findIds("дрель", 0, 10));
+
+		index.remove(4);
+		index.remove(3);
+		assertEquals(List.of(), index.findIds("дрель", 0, 10));
+		assertEquals(List.of(), index.findIds("палатка", 0, 10));
+		assertEquals(List.of(1), index.findIds("р", 0, 10));
+	}
+
+	private static Item item(int id, String name, String description, boolean available) {
+		return Item.builder()
+				.id(id)
+				.ownerId(1)
+				.name(name)
+				.description(description)
+				.available(available)
+				.build();
+	}
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+	@Test
+	void keepsIdsSortedAndUniqueUnderRandomOperations() {
+		Random random = new Random(7);
+		PostingList list = new PostingList();
+		TreeSet<Integer> expected = new TreeSet<>();
+		for (int i = 0; i < 50_000; i++) {
+			int id = 1 + random.nextInt(2_000);
+			if (random.nextInt(3) == 0) {
+				list.remove(id);
+				expected.remove(id);
+			} else {
+				list.add(id);
+				expected.add(id);
+			}
+		}
+		assertEquals(expected.size(), list.size());
+		int index = 0;
+		for (int id : expected) {
+			assertEquals(id, list.get(index++));
+			assertTrue(list.contains(id));
+		}
+	}
+
+	@Test
+	void firstIndexAfterPointsPastCursor() {
+		PostingList list = new PostingList();
+		for (int id : new int[]{10, 20, 30}) {
+			list.add(id);
+		}
+
+		assertEquals(0, list.firstIndexAfter(0));
+		assertEquals(1, list.firstIndexAfter(10));
+		assertEquals(2, list.firstIndexAfter(25));
+		assertEquals(3, list.firstIndexAfter(30));
+	}
+
+	@Test
+	void removingLastIdEmptiesList() {
+		PostingList list = new PostingList();
+		list.add(5);
+		list.remove(6);
+		assertFalse(list.isEmpty());
+
+		list.remove(5);
+		assertTrue(list.isEmpty());
+		assertFalse(list.contains(5));
+	}
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:${random.uuid}",
+		"shareit.traffic.capture.enabled=true",
+		"shareit.traffic.capture.file=target/traffic/capture-test.jsonl"
+})
+@AutoConfigureMockMvc
+class TrafficCaptureFilterTest {
+	private static final Path FILE = Path.of("target/traffic/capture-test.jsonl");
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void capturedRequestsAreWrittenAsJsonLines() throws Exception {
+		String login = UUID.randomUUID().toString();
+		String body = "{\"name\":\"" + login + "\",\"email\":\"" + login + "@shareit.ru\"}";
+		mockMvc.perform(post("/users")
+						.contentType(MediaType.APPLICATION_JSON)
+						.header("X-Sharer-User-Id", "1")
+						.content(body))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/items/search?text=" + login).header("X-Sharer-User-Id", "1"))
+				.andExpect(status().isOk());
+
+		List<TrafficRecord> records = awaitRecords(login, 2);
+		TrafficRecord created = records.get(0);
+		assertEquals("POST", created.getMethod());
+		assertEquals("/users", created.getUri());
+		assertEquals(body, created.getBody());
+		assertEquals(200, created.getStatus());
+		assertEquals("1", created.getHeaders().get("X-Sharer-User-Id"));
+		assertTrue(created.getDurationMicros() >= 0);
+
+		TrafficRecord searched = records.get(1);
+		assertEquals("GET", searched.getMethod());
+		assertEquals("/items/search?text=" + login, searched.getUri());
+		assertNull(searched.getBody());
+	}
+
+	private List<TrafficRecord> awaitRecords(String marker, int expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5_000;
+		List<TrafficRecord> records = List.of();
+		while (records.size() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+			if (Files.exists(FILE)) {
+				BufferedReader reader = Files.newBufferedReader(FILE, StandardCharsets.UTF_8);
+				try (Stream<TrafficRecord> stream = TrafficReader.read(reader, objectMapper)) {
+					records = stream
+							.filter(record -> record.getUri().contains(marker)
+									|| record.getBody() != null && record.getBody().contains(marker))
+							.collect(Collectors.toList());
+				}
+			}
+		}
+		assertEquals(expected, records.size());
+		return records;
+	}
+}
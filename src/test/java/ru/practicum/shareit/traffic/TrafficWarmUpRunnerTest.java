@@ -0,0 +1,135 @@
+package ru.practicum.shareit.traffic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.datasource.url=jdbc:h2:mem:${random.uuid}",
+		"spring.sql.init.data-locations=classpath:warm-up/data.sql",
+		"shareit.warm-up.enabled=true",
+		"shareit.warm-up.min-rounds=2",
+		"shareit.warm-up.max-duration=10s"
+})
+class TrafficWarmUpRunnerTest {
+	private static final List<ReadinessState> STATES_DURING_REQUESTS = new CopyOnWriteArrayList<>();
+
+	@LocalServerPort
+	private int port;
+	@Autowired
+	private TrafficWarmUpRunner warmUpRunner;
+	@Autowired
+	private ApplicationAvailability availability;
+	@Autowired
+	private ApplicationContext context;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private ItemService itemService;
+	@Autowired
+	private WarmUpSampleBuilder sampleBuilder;
+	@Autowired
+	private WarmUpCacheLoader cacheLoader;
+
+	@Test
+	void readinessIsRefusedWhileWarmUpRequestsRunAndAcceptedAfterwards() {
+		assertFalse(STATES_DURING_REQUESTS.isEmpty());
+		assertEquals(Set.of(ReadinessState.REFUSING_TRAFFIC), Set.copyOf(STATES_DURING_REQUESTS));
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+	}
+
+	@Test
+	void sampleIsBuiltFromExistingIds() {
+		List<TrafficRecord> records = sampleBuilder.build();
+
+		assertTrue(records.stream().allMatch(record -> "GET".equals(record.getMethod())));
+		assertTrue(records.stream().anyMatch(record -> "/items/1".equals(record.getUri())
+				&& "1".equals(record.getHeaders().get("X-Sharer-User-Id"))));
+		assertTrue(records.stream().anyMatch(record -> record.getUri().startsWith("/items/search?text=")));
+		assertTrue(records.stream().anyMatch(record -> record.getUri().startsWith("/bookings/owner?state=")));
+	}
+
+	@Test
+	void sampleMatchingDataIsReplayedInRounds() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			UserDto owner = TestUsers.create(userService);
+			itemService.saveItem(ItemDto.builder()
+					.ownerId(owner.getId())
+					.name("Дрель " + i)
+					.description("Ударная дрель")
+					.available(true)
+					.build(), owner.getId());
+		}
+
+		assertTrue(warmUpRunner.warmUp(port) >= 2);
+	}
+
+	@Test
+	void sampleNotMatchingDataIsSkipped() throws Exception {
+		String sample = "{\"method\":\"GET\",\"uri\":\"/items/" + Integer.MAX_VALUE + "\"," +
+				"\"headers\":{\"X-Sharer-User-Id\":\"" + Integer.MAX_VALUE + "\"}}\n";
+		TrafficWarmUpRunner runner = new TrafficWarmUpRunner(context, objectMapper, sampleBuilder, cacheLoader, true,
+				new ByteArrayResource(sample.getBytes(StandardCharsets.UTF_8)), 2, 2, 2, 0.1,
+				Duration.ofSeconds(10), 0.5);
+
+		assertEquals(0, runner.warmUp(port));
+	}
+
+	@TestConfiguration
+	static class ReadinessRecorder {
+		private static volatile boolean started;
+
+		@Bean
+		Filter readinessRecordingFilter(ApplicationAvailability availability) {
+			return new OncePerRequestFilter() {
+				@Override
+				protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+												FilterChain filterChain) throws ServletException, IOException {
+					if (!started) {
+						STATES_DURING_REQUESTS.add(availability.getReadinessState());
+					}
+					filterChain.doFilter(request, response);
+				}
+			};
+		}
+
+		@EventListener(ApplicationReadyEvent.class)
+		void stopRecording() {
+			started = true;
+		}
+	}
+}
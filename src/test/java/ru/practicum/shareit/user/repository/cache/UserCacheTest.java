@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user.repository.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestUsers;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserCacheTest {
+	@Autowired
+	private UserCache userCache;
+	@Autowired
+	private UserService userService;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void repeatedLookupsAreServedFromMemory() {
+		UserDto user = TestUsers.create(userService);
+		double hits = gets("hit");
+		double misses = gets("miss");
+
+		userCache.findById(user.getId());
+		userCache.findById(user.getId());
+		userCache.findById(user.getId());
+
+		assertEquals(misses + 1, gets("miss"));
+		assertEquals(hits + 2, gets("hit"));
+	}
+
+	@Test
+	void updateAndDeleteEvictUser() {
+		UserDto user = TestUsers.create(userService);
+		userCache.findById(user.getId());
+
+		userService.updateUser(UserDto.builder().id(user.getId()).name("Новое имя").build());
+		assertEquals("Новое имя", userCache.findById(user.getId()).orElseThrow().getName());
+
+		userService.deleteUser(user.getId());
+		assertTrue(userCache.findById(user.getId()).isEmpty());
+	}
+
+	private double gets(String result) {
+		return meterRegistry.get("cache.gets")
+				.tag("cache", "users")
+				.tag("result", result)
+				.functionCounter()
+				.count();
+	}
+}
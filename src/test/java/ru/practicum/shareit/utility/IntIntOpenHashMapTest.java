@@ -0,0 +1,50 @@
+package ru.practicum.shareit.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntIntOpenHashMapTest {
+
+	@Test
+	void behavesLikeHashMapUnderRandomOperations() {
+		Random random = new Random(42);
+		IntIntOpenHashMap map = new IntIntOpenHashMap(4);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 200_000; i++) {
+			int key = 1 + random.nextInt(5_000);
+			switch (random.nextInt(4)) {
+				case 0:
+				case 1:
+					int value = 1 + random.nextInt(100);
+					map.put(key, value);
+					expected.put(key, value);
+					break;
+				case 2:
+					map.remove(key);
+					expected.remove(key);
+					break;
+				default:
+					assertEquals(expected.getOrDefault(key, -1), map.get(key, -1));
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		expected.forEach((key, value) -> assertEquals(value, map.get(key, -1)));
+	}
+
+	@Test
+	void removeValueDropsEveryKeyOfValue() {
+		IntIntOpenHashMap map = new IntIntOpenHashMap(4);
+		for (int key = 1; key <= 1_000; key++) {
+			map.put(key, key % 3);
+		}
+		map.removeValue(1);
+		for (int key = 1; key <= 1_000; key++) {
+			assertEquals(key % 3 == 1 ? -1 : key % 3, map.get(key, -1));
+		}
+	}
+}
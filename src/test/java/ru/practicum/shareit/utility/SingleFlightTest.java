@@ -0,0 +1,71 @@
+package ru.practicum.shareit.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallsWithSameKeyShareOneComputation() throws Exception {
+		SingleFlight<String, Object> flight = new SingleFlight<>();
+		AtomicInteger computations = new AtomicInteger();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Object shared = new Object();
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Object>> results = new ArrayList<>();
+			results.add(executor.submit(() -> flight.execute("key", () -> {
+				computations.incrementAndGet();
+				started.countDown();
+				await(release);
+				return shared;
+			})));
+			await(started);
+			for (int i = 1; i < threads; i++) {
+				results.add(executor.submit(() -> flight.execute("key", () -> {
+					computations.incrementAndGet();
+					return new Object();
+				})));
+			}
+			Thread.sleep(200);
+			release.countDown();
+			for (Future<Object> result : results) {
+				assertSame(shared, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, computations.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void failureIsRethrownAndNotRemembered() {
+		SingleFlight<String, String> flight = new SingleFlight<>();
+		assertThrows(IllegalStateException.class, () -> flight.execute("key", () -> {
+			throw new IllegalStateException();
+		}));
+		assertEquals("value", flight.execute("key", () -> "value"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException exception) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,2 @@
+INSERT INTO USERS (NAME, EMAIL) VALUES ('Прогрев', 'warm-up@shareit.ru');
+INSERT INTO ITEMS (NAME, DESCRIPTION, AVAILABLE, OWNER_ID) VALUES ('Дрель', 'Ударная дрель', TRUE, 1);